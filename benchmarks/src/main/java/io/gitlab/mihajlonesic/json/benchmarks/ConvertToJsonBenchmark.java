@@ -0,0 +1,94 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConfig;
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.data.Person;
+import io.gitlab.mihajlonesic.json.data.Student;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter#convertToJson(Object)} over small, medium and large payloads.
+ * Run with {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConvertToJsonBenchmark {
+
+    @Param({"1000", "10000"})
+    public int students;
+
+    private Person small;
+    private Person medium;
+    private List<Student> large;
+    private final JsonConfig parallel = JsonConfig.DEFAULT.withParallelism(ForkJoinPool.commonPool(), 1000);
+
+    @Setup
+    public void setUp() {
+        small = Payloads.small();
+        medium = Payloads.medium();
+        large = Payloads.students(students);
+    }
+
+    @Benchmark
+    public String small() {
+        return JsonConverter.convertToJson(small);
+    }
+
+    @Benchmark
+    public String medium() {
+        return JsonConverter.convertToJson(medium);
+    }
+
+    @Benchmark
+    public String large() {
+        return JsonConverter.convertToJson(large);
+    }
+
+    @Benchmark
+    public byte[] largeEncoded() {
+        return JsonConverter.convertToJson(large).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] largeBytes() {
+        return JsonConverter.convertToJsonBytes(large);
+    }
+
+    @Benchmark
+    public String largeParallel() {
+        return JsonConverter.convertToJson(large, parallel);
+    }
+
+    @Benchmark
+    public void largeOneByOne(Blackhole blackhole) {
+        for (Student student : large) {
+            blackhole.consume(JsonConverter.convertToJson(student).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void largeNdjson(Blackhole blackhole) {
+        JsonConverter.writeNdjson(large.iterator(), new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                blackhole.consume(bytes);
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.data.PhoneType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter#convertToJson(Object)} over a configuration-like map of {@code entries} String keys,
+ * each holding a small map of String keys and one holding enum keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapsBenchmark {
+
+    @Param({"10000"})
+    public int entries;
+
+    private Map<String, Object> strings;
+    private Map<String, Object> enums;
+
+    @Setup
+    public void setUp() {
+        strings = new HashMap<>();
+        enums = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            Map<String, Object> setting = new HashMap<>();
+            setting.put("name", "setting." + i);
+            setting.put("value", i);
+            setting.put("enabled", i % 2 == 0);
+            strings.put("key." + i, setting);
+
+            Map<PhoneType, String> numbers = new EnumMap<>(PhoneType.class);
+            numbers.put(PhoneType.HOME, "212-555-" + i);
+            numbers.put(PhoneType.MOBILE, "123-456-" + i);
+            enums.put("key." + i, numbers);
+        }
+    }
+
+    @Benchmark
+    public String stringKeys() {
+        return JsonConverter.convertToJson(strings);
+    }
+
+    @Benchmark
+    public String enumKeys() {
+        return JsonConverter.convertToJson(enums);
+    }
+
+    @Benchmark
+    public byte[] stringKeysBytes() {
+        return JsonConverter.convertToJsonBytes(strings);
+    }
+}
@@ -0,0 +1,70 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonInit;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+import io.gitlab.mihajlonesic.json.data.Person;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the per-class metadata cache saves on every call: {@code scan} looks up the fields, annotations and
+ * {@link JsonInit} methods of each object of the medium payload, as every call did before the cache,
+ * and {@code convert} writes the payload from the cached metadata. Without the cache a call costs both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MetadataBenchmark {
+
+    private Person person;
+    private List<Object> objects;
+
+    @Setup
+    public void setUp() {
+        person = Payloads.medium();
+        objects = new ArrayList<>();
+        objects.add(person);
+        objects.add(person.getAddress());
+        Collections.addAll(objects, (Object[]) person.getPhoneNumbers());
+    }
+
+    @Benchmark
+    public String convert() {
+        return JsonConverter.convertToJson(person);
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        for (Object object : objects) {
+            Class<?> clazz = object.getClass();
+            blackhole.consume(clazz.isAnnotationPresent(JsonSerializable.class));
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(JsonInit.class)) {
+                    method.setAccessible(true);
+                    blackhole.consume(method);
+                }
+            }
+            for (Field field : clazz.getDeclaredFields()) {
+                field.setAccessible(true);
+                if (field.isAnnotationPresent(JsonElement.class)) {
+                    JsonElement element = field.getAnnotation(JsonElement.class);
+                    blackhole.consume(element.key().isEmpty() ? field.getName() : element.key());
+                    blackhole.consume(element.required());
+                    blackhole.consume(field.getType().isAnnotationPresent(JsonSerializable.class));
+                }
+            }
+        }
+    }
+}
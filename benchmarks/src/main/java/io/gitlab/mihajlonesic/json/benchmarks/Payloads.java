@@ -0,0 +1,77 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.data.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * @return a person with only the required fields set
+     */
+    static Person small() {
+        return new Person("john", "doe", 34);
+    }
+
+    /**
+     * @return a person with an address, phone numbers and professions
+     */
+    static Person medium() {
+        Person person = new Person("john", "doe", 34);
+        person.setMarried(true);
+        person.setNumberOfMarriages(1);
+        person.setAddress(new Address("Main Street", "12a", "Springfield", "USA"));
+        person.setFavoriteDrinks(new String[]{"coffee", "tea"});
+        person.setLuckyNumbers(new Integer[]{7, 13, 42});
+        person.setPhoneNumbers(new Phone[]{
+                new Phone(PhoneType.MOBILE, "555-010-0100"),
+                new Phone(PhoneType.HOME, "555-010-0101"),
+                new Phone(PhoneType.OFFICE, "555-010-0102")
+        });
+        person.setProfessions(Arrays.asList(Profession.TEACHER, Profession.ARTIST));
+        return person;
+    }
+
+    /**
+     * @return {@code count} students, each with a few grades and attendance records
+     */
+    static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student("Jane", "Doe", 1000L + i);
+            student.getGrades().put("math", new Grade(91.5, 10L));
+            student.getGrades().put("physics", new Grade(78.0, 8L));
+            student.getGrades().put("history", new Grade(65.25, 7L));
+            student.getAttendance().put("2020-10-01", true);
+            student.getAttendance().put("2020-10-02", false);
+            student.getCodes().put("locker", "A-" + i);
+            student.setDiplomaIdNumber(i % 2 == 0 ? null : "D" + i);
+            students.add(student);
+        }
+        return students;
+    }
+
+    /**
+     * @return an unformatted JSON document of at least {@code size} characters
+     */
+    static String document(int size) {
+        String student = JsonConverter.convertToJson(students(1).get(0));
+        StringBuilder document = new StringBuilder(size + student.length() + 2).append('[');
+        while (document.length() < size) {
+            if (document.length() > 1) {
+                document.append(',');
+            }
+            document.append(student);
+        }
+        return document.append(']').toString();
+    }
+}
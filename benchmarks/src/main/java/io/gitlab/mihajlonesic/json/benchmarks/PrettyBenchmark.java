@@ -0,0 +1,55 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter#pretty(String)} and its streaming variant over documents of 1 KB to 10 MB.
+ * Run with {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PrettyBenchmark {
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    public int size;
+
+    private String document;
+
+    @Setup
+    public void setUp() {
+        document = Payloads.document(size);
+    }
+
+    @Benchmark
+    public String pretty() {
+        return JsonConverter.pretty(document);
+    }
+
+    @Benchmark
+    public void prettyStreamed(Blackhole blackhole) {
+        JsonConverter.pretty(new StringReader(document), new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length) {
+                blackhole.consume(chars);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.JsonDocument;
+import io.gitlab.mihajlonesic.json.data.Person;
+import io.gitlab.mihajlonesic.json.data.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter#fromJson(String, Class)} over the JSON {@link ConvertToJsonBenchmark} writes,
+ * from a String and from UTF-8 bytes, and {@link JsonDocument} reading a single value out of the same JSON.
+ * Run with {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReadJsonBenchmark {
+
+    @Param({"1000", "10000"})
+    public int students;
+
+    private String small;
+    private String medium;
+    private String large;
+    private byte[] largeBytes;
+
+    @Setup
+    public void setUp() {
+        small = JsonConverter.convertToJson(Payloads.small());
+        medium = JsonConverter.convertToJson(Payloads.medium());
+        large = JsonConverter.convertToJson(Payloads.students(students));
+        largeBytes = JsonConverter.convertToJsonBytes(Payloads.students(students));
+    }
+
+    @Benchmark
+    public Person small() {
+        return JsonConverter.fromJson(small, Person.class);
+    }
+
+    @Benchmark
+    public Person medium() {
+        return JsonConverter.fromJson(medium, Person.class);
+    }
+
+    @Benchmark
+    public Student[] large() {
+        return JsonConverter.fromJson(large, Student[].class);
+    }
+
+    @Benchmark
+    public Student[] largeBytes() {
+        return JsonConverter.fromJson(largeBytes, Student[].class);
+    }
+
+    @Benchmark
+    public String mediumCity() {
+        return JsonDocument.parse(medium).get("address", "city").asString();
+    }
+
+    @Benchmark
+    public long largeField() {
+        return JsonDocument.parse(large).getRoot().get(students / 2).get("idNumber").asLong();
+    }
+
+    @Benchmark
+    public long largeFieldBytes() {
+        return JsonDocument.parse(largeBytes).getRoot().get(students / 2).get("idNumber").asLong();
+    }
+}
@@ -0,0 +1,57 @@
+package io.gitlab.mihajlonesic.json.benchmarks;
+
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.data.Address;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter#convertToJson(Object)} over objects that are mostly strings, to String and to UTF-8 bytes.
+ * {@code clean} strings have nothing to escape, which is the cost escaping adds to the common case;
+ * {@code escaped} ones have a quote and a new line in every value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StringsBenchmark {
+
+    @Param({"clean", "escaped"})
+    public String text;
+
+    @Param({"16", "256"})
+    public int length;
+
+    private Address[] addresses;
+
+    @Setup
+    public void setUp() {
+        StringBuilder value = new StringBuilder(length);
+        while (value.length() < length) {
+            value.append("Main Street ").append(value.length());
+        }
+        value.setLength(length);
+        if (text.equals("escaped")) {
+            value.setCharAt(length / 2, '"');
+            value.setCharAt(length - 1, '\n');
+        }
+
+        addresses = new Address[100];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = new Address(value.toString(), value.toString(), value.toString(), value.toString());
+        }
+    }
+
+    @Benchmark
+    public String chars() {
+        return JsonConverter.convertToJson(addresses);
+    }
+
+    @Benchmark
+    public byte[] bytes() {
+        return JsonConverter.convertToJsonBytes(addresses);
+    }
+}
@@ -0,0 +1,250 @@
+package io.gitlab.mihajlonesic.json.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates a {@code <Type>JsonSerializer} for every class annotated with {@code @JsonSerializable}
+ * and lists them in {@code META-INF/services/io.gitlab.mihajlonesic.json.GeneratedJsonSerializer},
+ * where {@code JsonConverter} finds them.
+ *
+ * Generated code reads the {@code @JsonElement} fields directly, as reflection does, and never through getters,
+ * which may compute or copy their value. It can't reach private members, so a class with a private
+ * {@code @JsonElement} field or a private {@code @JsonInit} method is reported and left to reflection.
+ */
+@SupportedAnnotationTypes(JsonSerializableProcessor.JSON_SERIALIZABLE)
+public class JsonSerializableProcessor extends AbstractProcessor {
+
+    static final String JSON_SERIALIZABLE = "io.gitlab.mihajlonesic.json.JsonSerializable";
+    static final String JSON_ELEMENT = "io.gitlab.mihajlonesic.json.JsonElement";
+    static final String JSON_INIT = "io.gitlab.mihajlonesic.json.JsonInit";
+    static final String SERVICE_FILE = "META-INF/services/io.gitlab.mihajlonesic.json.GeneratedJsonSerializer";
+
+    private final Set<String> serializers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                if (type.getKind() == ElementKind.CLASS) {
+                    generate(type);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        String problem = findProblem(type);
+        if (problem != null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    problem + ", " + type.getSimpleName() + " will be serialized with reflection", type);
+            return;
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = serializerName(type);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source(type, packageName, simpleName));
+            }
+            serializers.add(qualifiedName);
+        } catch (FilerException e) {
+            // generated by an earlier build and compiled again as a source
+            serializers.add(qualifiedName);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't generate " + qualifiedName + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * @return why the class can't be serialized by generated code, {@code null} when it can
+     */
+    private String findProblem(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return element.getSimpleName() + " is private";
+            }
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return type.getSimpleName() + " is generic";
+        }
+        for (VariableElement field : elementFields(type)) {
+            if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                return "The field " + field.getSimpleName() + " is private";
+            }
+        }
+        for (ExecutableElement method : initMethods(type)) {
+            if (method.getModifiers().contains(Modifier.PRIVATE) || !method.getParameters().isEmpty()) {
+                return "The @JsonInit method " + method.getSimpleName() + " is private or has parameters";
+            }
+        }
+        return null;
+    }
+
+    private String source(TypeElement type, String packageName, String simpleName) {
+        String typeName = type.getQualifiedName().toString();
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import io.gitlab.mihajlonesic.json.GeneratedJsonSerializer;\n");
+        source.append("import io.gitlab.mihajlonesic.json.JsonProperty;\n\n");
+        source.append("/**\n");
+        source.append(" * Serializes {@link ").append(typeName).append("} without reflection.\n");
+        source.append(" * Generated by ").append(getClass().getName()).append(", do not edit.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(simpleName)
+                .append(" extends GeneratedJsonSerializer<").append(typeName).append("> {\n\n");
+
+        source.append("    public ").append(simpleName).append("() {\n");
+        source.append("        super(").append(typeName).append(".class");
+        for (VariableElement field : elementFields(type)) {
+            source.append(",\n                JsonProperty.<").append(typeName).append(">of(")
+                    .append(processingEnv.getElementUtils().getConstantExpression(key(field))).append(", ")
+                    .append(required(field)).append(", ")
+                    .append(processingEnv.getTypeUtils().erasure(field.asType())).append(".class, ")
+                    .append("value -> value.").append(field.getSimpleName()).append(")");
+        }
+        source.append(");\n");
+        source.append("    }\n");
+
+        List<ExecutableElement> initMethods = initMethods(type);
+        if (!initMethods.isEmpty()) {
+            source.append("\n    @Override\n");
+            source.append("    protected void initialize(").append(typeName).append(" value) {\n");
+            for (ExecutableElement method : initMethods) {
+                String target = method.getModifiers().contains(Modifier.STATIC) ? typeName : "value";
+                source.append("        ").append(target).append(".").append(method.getSimpleName()).append("();\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Outer.Inner is generated as Outer_InnerJsonSerializer, next to Outer.
+     */
+    private static String serializerName(TypeElement type) {
+        String name = type.getSimpleName().toString();
+        for (Element element = type.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            name = element.getSimpleName() + "_" + name;
+        }
+        return name + "JsonSerializer";
+    }
+
+    private static List<VariableElement> elementFields(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC) && annotation(field, JSON_ELEMENT) != null) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static List<ExecutableElement> initMethods(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (annotation(method, JSON_INIT) != null) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static String key(VariableElement field) {
+        Object key = annotationValue(field, "key");
+        return key == null || key.toString().isEmpty() ? field.getSimpleName().toString() : key.toString();
+    }
+
+    private static boolean required(VariableElement field) {
+        Object required = annotationValue(field, "required");
+        return required == null || (Boolean) required;
+    }
+
+    private static Object annotationValue(Element element, String name) {
+        AnnotationMirror annotation = annotation(element, JSON_ELEMENT);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            DeclaredType annotationType = annotation.getAnnotationType();
+            if (((TypeElement) annotationType.asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists the generated serializers, keeping the ones from earlier incremental compilations.
+     */
+    private void writeServiceFile() {
+        if (serializers.isEmpty()) {
+            return;
+        }
+
+        Set<String> entries = new TreeSet<>(serializers);
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        entries.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // nothing generated before
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+}
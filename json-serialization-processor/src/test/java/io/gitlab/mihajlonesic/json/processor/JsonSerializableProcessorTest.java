@@ -0,0 +1,96 @@
+package io.gitlab.mihajlonesic.json.processor;
+
+import io.gitlab.mihajlonesic.json.GeneratedJsonSerializer;
+import io.gitlab.mihajlonesic.json.JsonConverter;
+import io.gitlab.mihajlonesic.json.processor.data.Author;
+import io.gitlab.mihajlonesic.json.processor.data.Book;
+import io.gitlab.mihajlonesic.json.processor.data.Genre;
+import io.gitlab.mihajlonesic.json.processor.data.Shelf;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static org.junit.Assert.*;
+
+public class JsonSerializableProcessorTest {
+
+    @Test
+    public void whenClassIsAnnotatedThenSerializerIsGeneratedAndRegistered() {
+        List<Class<?>> registered = new ArrayList<>();
+        for (GeneratedJsonSerializer<?> serializer : ServiceLoader.load(GeneratedJsonSerializer.class)) {
+            registered.add(serializer.getType());
+        }
+
+        assertTrue(registered.contains(Book.class));
+        assertTrue(registered.contains(Author.class));
+        assertFalse(registered.contains(Shelf.class));
+    }
+
+    @Test
+    public void whenGeneratedSerializerIsUsedThenJsonMatchesReflection() {
+        Book book = new Book("  Dune ", "9780441013593", 412, Genre.NOVEL);
+        book.setAuthor(new Author("Frank Herbert", false));
+        book.setTags(Collections.singletonList("classic"));
+
+        String json = JsonConverter.convertToJson(book);
+
+        assertEquals("{\"title\":\"Dune\",\"isbn13\":\"9780441013593\",\"pages\":412,\"genre\":\"NOVEL\"," +
+                "\"author\":{\"name\":\"Frank Herbert\",\"alive\":false},\"tags\":[\"classic\"]}", json);
+        assertEquals("classes with a generated serializer are read reflectively", json,
+                JsonConverter.convertToJson(JsonConverter.fromJson(json, Book.class)));
+        assertEquals("compiling keeps the generated serializer", json, JsonConverter.compile(Book.class).toJson(book));
+    }
+
+    @Test
+    public void whenGetterTransformsItsFieldThenGeneratedAndReflectiveSerializersBothWriteTheField() {
+        Author author = new Author("Frank Herbert", true);
+        Shelf shelf = new Shelf(" Sci-fi ");
+
+        assertEquals("FRANK HERBERT", author.getName());
+        assertEquals("{\"name\":\"Frank Herbert\",\"alive\":true}", JsonConverter.convertToJson(author));
+        assertEquals("Sci-fi", shelf.getLabel());
+        assertEquals("{\"label\":\" Sci-fi \",\"books\":[]}", JsonConverter.convertToJson(shelf));
+    }
+
+    @Test
+    public void whenFieldIsPrivateThenClassIsLeftToReflection() {
+        String source = "package test;\n" +
+                "@io.gitlab.mihajlonesic.json.JsonSerializable\n" +
+                "public class Hidden {\n" +
+                "    @io.gitlab.mihajlonesic.json.JsonElement\n" +
+                "    private String secret;\n" +
+                "    public String getSecret() {\n" +
+                "        return secret;\n" +
+                "    }\n" +
+                "}\n";
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/Hidden.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")),
+                null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new JsonSerializableProcessor()));
+
+        assertTrue(task.call());
+        List<String> warnings = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING) {
+                warnings.add(diagnostic.getMessage(null));
+            }
+        }
+        assertTrue(warnings.contains("The field secret is private, Hidden will be serialized with reflection"));
+    }
+}
@@ -0,0 +1,30 @@
+package io.gitlab.mihajlonesic.json.processor.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+@JsonSerializable
+public class Author {
+
+    @JsonElement
+    String name;
+
+    @JsonElement(key = "alive")
+    boolean isAlive;
+
+    public Author() {
+    }
+
+    public Author(String name, boolean isAlive) {
+        this.name = name;
+        this.isAlive = isAlive;
+    }
+
+    public String getName() {
+        return name.toUpperCase();
+    }
+
+    public boolean isAlive() {
+        return isAlive;
+    }
+}
@@ -0,0 +1,61 @@
+package io.gitlab.mihajlonesic.json.processor.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonInit;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonSerializable
+public class Book {
+
+    @JsonElement
+    String title;
+
+    @JsonElement(key = "isbn13")
+    String isbn;
+
+    @JsonElement
+    int pages;
+
+    @JsonElement
+    Genre genre;
+
+    @JsonElement(required = false)
+    String subtitle;
+
+    @JsonElement(required = false)
+    Author author;
+
+    @JsonElement(required = false)
+    String[] translations;
+
+    @JsonElement(required = false)
+    List<String> tags = new ArrayList<>();
+
+    String notes;
+
+    public Book() {
+    }
+
+    public Book(String title, String isbn, int pages, Genre genre) {
+        this.title = title;
+        this.isbn = isbn;
+        this.pages = pages;
+        this.genre = genre;
+    }
+
+    public void setAuthor(Author author) {
+        this.author = author;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    @JsonInit
+    void trimTitle() {
+        this.title = this.title.trim();
+    }
+}
@@ -0,0 +1,6 @@
+package io.gitlab.mihajlonesic.json.processor.data;
+
+public enum Genre {
+    NOVEL,
+    POETRY
+}
@@ -0,0 +1,26 @@
+package io.gitlab.mihajlonesic.json.processor.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+/**
+ * Has a private field, so it is left to reflection.
+ */
+@JsonSerializable
+public class Shelf {
+
+    @JsonElement
+    private String label;
+
+    @JsonElement
+    Book[] books;
+
+    public Shelf(String label, Book... books) {
+        this.label = label;
+        this.books = books;
+    }
+
+    public String getLabel() {
+        return label.trim();
+    }
+}
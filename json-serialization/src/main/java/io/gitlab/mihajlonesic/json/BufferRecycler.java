@@ -0,0 +1,75 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Keeps the output buffer of the last conversion on each thread, so the next one writes into it
+ * instead of allocating and growing a new one.
+ *
+ * A buffer is taken out while it is in use, so a conversion started from within another one
+ * (e.g. from a {@link JsonInit} method) gets a buffer of its own. Buffers bigger than
+ * {@value #MAX_RECYCLED_CAPACITY_PROPERTY} (default {@value #DEFAULT_MAX_RECYCLED_CAPACITY} characters or bytes)
+ * are not kept, so a single huge document doesn't pin its memory for the life of the thread.
+ * {@code 0} turns recycling off.
+ */
+final class BufferRecycler {
+
+    static final String MAX_RECYCLED_CAPACITY_PROPERTY = "io.gitlab.mihajlonesic.json.maxRecycledCapacity";
+    static final int DEFAULT_MAX_RECYCLED_CAPACITY = 64 * 1024;
+    static final int MAX_RECYCLED_CAPACITY = Integer.getInteger(MAX_RECYCLED_CAPACITY_PROPERTY, DEFAULT_MAX_RECYCLED_CAPACITY);
+
+    private static final ThreadLocal<BufferRecycler> RECYCLERS = ThreadLocal.withInitial(BufferRecycler::new);
+
+    private char[] chars;
+    private byte[] bytes;
+    // formats floating point numbers, used and emptied within a single write
+    private final StringBuilder digits = new StringBuilder(32);
+
+    private BufferRecycler() {
+    }
+
+    static char[] takeChars(int minCapacity) {
+        BufferRecycler recycler = RECYCLERS.get();
+        char[] buffer = recycler.chars;
+        if (buffer != null && buffer.length >= minCapacity) {
+            recycler.chars = null;
+            return buffer;
+        }
+        return new char[minCapacity];
+    }
+
+    static void release(char[] buffer) {
+        if (buffer.length <= MAX_RECYCLED_CAPACITY) {
+            BufferRecycler recycler = RECYCLERS.get();
+            if (recycler.chars == null || recycler.chars.length < buffer.length) {
+                recycler.chars = buffer;
+            }
+        }
+    }
+
+    static byte[] takeBytes(int minCapacity) {
+        BufferRecycler recycler = RECYCLERS.get();
+        byte[] buffer = recycler.bytes;
+        if (buffer != null && buffer.length >= minCapacity) {
+            recycler.bytes = null;
+            return buffer;
+        }
+        return new byte[minCapacity];
+    }
+
+    static void release(byte[] buffer) {
+        if (buffer.length <= MAX_RECYCLED_CAPACITY) {
+            BufferRecycler recycler = RECYCLERS.get();
+            if (recycler.bytes == null || recycler.bytes.length < buffer.length) {
+                recycler.bytes = buffer;
+            }
+        }
+    }
+
+    /**
+     * @return an empty builder for formatting a number, to be copied out before anything else is written
+     */
+    static StringBuilder digits() {
+        StringBuilder digits = RECYCLERS.get().digits;
+        digits.setLength(0);
+        return digits;
+    }
+}
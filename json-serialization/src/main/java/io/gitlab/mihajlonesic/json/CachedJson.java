@@ -0,0 +1,30 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON written as it is, encoded to UTF-8 the first time it is written as bytes:
+ * the compact JSON of a {@link JsonCacheable} object, or an enum constant quoted once per class.
+ */
+final class CachedJson {
+
+    final String json;
+    // how deeply the JSON nests objects and arrays, 1 for an object without any
+    final int depth;
+    // racy, every thread encodes the same bytes
+    private byte[] utf8;
+
+    CachedJson(String json, int depth) {
+        this.json = json;
+        this.depth = depth;
+    }
+
+    byte[] utf8() {
+        byte[] bytes = utf8;
+        if (bytes == null) {
+            bytes = json.getBytes(StandardCharsets.UTF_8);
+            utf8 = bytes;
+        }
+        return bytes;
+    }
+}
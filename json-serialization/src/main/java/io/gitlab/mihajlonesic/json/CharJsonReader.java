@@ -0,0 +1,49 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Reads JSON from a character buffer, e.g. the characters of a String.
+ */
+final class CharJsonReader extends JsonReader {
+
+    private final char[] buffer;
+
+    CharJsonReader(char[] buffer, int length) {
+        this(buffer, 0, length);
+    }
+
+    CharJsonReader(char[] buffer, int start, int end) {
+        super(start, end);
+        this.buffer = buffer;
+    }
+
+    @Override
+    int at(int index) {
+        return buffer[index];
+    }
+
+    @Override
+    String text(int start, int end) {
+        return new String(buffer, start, end - start);
+    }
+
+    @Override
+    void appendText(StringBuilder builder, int start, int end) {
+        builder.append(buffer, start, end - start);
+    }
+
+    @Override
+    boolean isKey(int start, int end, JsonKey key) {
+        // the name sits between ,"  and ":
+        char[] chars = key.chars;
+        int length = end - start;
+        if (length != chars.length - 4) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != chars[i + 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,230 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects JSON output in a character buffer, for a String or an {@link Appendable}.
+ */
+final class CharJsonWriter extends JsonWriter {
+
+    private final Appendable target;
+    private char[] buffer;
+    private int count;
+
+    CharJsonWriter() {
+        this.target = null;
+        this.buffer = BufferRecycler.takeChars(DEFAULT_CAPACITY);
+    }
+
+    CharJsonWriter(Appendable target) {
+        this.target = target;
+        this.buffer = new char[STREAMING_CAPACITY];
+    }
+
+    @Override
+    void write(char c) {
+        if (count == buffer.length) {
+            makeRoom(1);
+        }
+        buffer[count++] = c;
+    }
+
+    @Override
+    void write(String value) {
+        write(value, 0, value.length());
+    }
+
+    /**
+     * Copies the value into the buffer and only then looks for characters to escape in the copy,
+     * so a string without any, the common case, is a single bulk copy and a scan of the buffer.
+     */
+    @Override
+    void writeEscaped(String value) {
+        int length = value.length();
+        if (count + length > buffer.length) {
+            makeRoom(length);
+        }
+        if (count + length > buffer.length) {
+            // only a huge string in a streaming writer
+            writeEscaped(value, 0);
+            return;
+        }
+
+        char[] chars = buffer;
+        int start = count;
+        value.getChars(0, length, chars, start);
+        for (int i = start, end = start + length; i < end; i++) {
+            if (needsEscape(chars[i])) {
+                count = i;
+                writeEscaped(value, i - start);
+                return;
+            }
+        }
+        count = start + length;
+    }
+
+    /**
+     * Writes the value from the index on, a run of clean characters at a time.
+     */
+    private void writeEscaped(String value, int index) {
+        int length = value.length();
+        int run = index;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (needsEscape(c)) {
+                write(value, run, index);
+                write(ESCAPES[c]);
+                run = index + 1;
+            }
+        }
+        write(value, run, length);
+    }
+
+    private void write(String value, int start, int end) {
+        if (count + end - start <= buffer.length) {
+            value.getChars(start, end, buffer, count);
+            count += end - start;
+            return;
+        }
+
+        int offset = start;
+        while (offset < end) {
+            if (count == buffer.length) {
+                makeRoom(end - offset);
+            }
+            int chunk = Math.min(end - offset, buffer.length - count);
+            value.getChars(offset, offset + chunk, buffer, count);
+            count += chunk;
+            offset += chunk;
+        }
+    }
+
+    @Override
+    void write(long value) {
+        if (value == Long.MIN_VALUE) {
+            write("-9223372036854775808");
+            return;
+        }
+        if (count + MAX_LONG_LENGTH > buffer.length) {
+            makeRoom(MAX_LONG_LENGTH);
+        }
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int end = count + digitCount(value);
+        int position = end;
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        count = end;
+    }
+
+    @Override
+    void writeAscii(StringBuilder value) {
+        int length = value.length();
+        if (count + length > buffer.length) {
+            makeRoom(length);
+        }
+        value.getChars(0, length, buffer, count);
+        count += length;
+    }
+
+    @Override
+    void writeKey(JsonKey key, boolean first) {
+        int offset = first ? 1 : 0;
+        int length = key.chars.length - offset;
+        if (count + length > buffer.length) {
+            makeRoom(length);
+            if (length > buffer.length) {
+                // only a huge key in a streaming writer
+                writeKeyAsText(key, first);
+                return;
+            }
+        }
+        System.arraycopy(key.chars, offset, buffer, count, length);
+        count += length;
+    }
+
+    @Override
+    void flush() {
+        if (target == null || count == 0) {
+            return;
+        }
+        try {
+            if (target instanceof Writer) {
+                ((Writer) target).write(buffer, 0, count);
+            }
+            else if (target instanceof StringBuilder) {
+                ((StringBuilder) target).append(buffer, 0, count);
+            }
+            else {
+                target.append(CharBuffer.wrap(buffer, 0, count));
+            }
+        } catch (IOException e) {
+            throw new JsonSerializationException("Can't write JSON: " + e.getMessage(), e);
+        }
+        count = 0;
+    }
+
+    /**
+     * @return how many characters are written, for a writer without a target
+     */
+    int length() {
+        return count;
+    }
+
+    /**
+     * Drops everything written after the length, for a writer without a target.
+     */
+    void truncate(int length) {
+        count = length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, count);
+    }
+
+    @Override
+    void release() {
+        if (target == null) {
+            BufferRecycler.release(buffer);
+        }
+        buffer = null;
+    }
+
+    @Override
+    JsonWriter fragment() {
+        return new CharJsonWriter();
+    }
+
+    @Override
+    void append(JsonWriter fragment) {
+        CharJsonWriter other = (CharJsonWriter) fragment;
+        int offset = 0;
+        while (offset < other.count) {
+            if (count == buffer.length) {
+                makeRoom(other.count - offset);
+            }
+            int chunk = Math.min(other.count - offset, buffer.length - count);
+            System.arraycopy(other.buffer, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+        }
+    }
+
+    private void makeRoom(int extra) {
+        if (target != null) {
+            flush();
+        }
+        else {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + extra));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks a {@link JsonSerializable} class and every serializable class its properties may hold, before any
+ * of them is written, and generates their serializers on the way, so the first conversion pays for neither.
+ */
+final class ClassChecker {
+
+    private final Set<Class<?>> checked = new HashSet<>();
+    private final List<String> problems;
+
+    /**
+     * @param problems where the problems found are added, one sentence each
+     */
+    ClassChecker(List<String> problems) {
+        this.problems = problems;
+    }
+
+    void check(Class<?> root) {
+        if (ClassMetadata.of(root).category != TypeCategory.OBJECT) {
+            problems.add("The class " + root.getSimpleName() + " is not annotated with JsonSerializable");
+            return;
+        }
+        checkObject(root);
+    }
+
+    private void checkObject(Class<?> type) {
+        if (!checked.add(type)) {
+            return;
+        }
+        ClassMetadata metadata = ClassMetadata.of(type);
+        for (Method method : metadata.initializers) {
+            if (method.getParameterCount() > 0) {
+                problems.add("The JsonInit method " + type.getSimpleName() + "." + method.getName() + " can't have parameters");
+            }
+        }
+        for (PropertyMetadata property : metadata.properties) {
+            checkValue(type.getSimpleName() + "." + property.key, property.genericType);
+        }
+        metadata.compile();
+    }
+
+    /**
+     * Looks through arrays, collections and maps to the objects they hold.
+     * An item of a class that isn't serializable would be written as its {@code toString()}.
+     */
+    private void checkValue(String where, Type type) {
+        if (type instanceof GenericArrayType) {
+            checkValue(where, ((GenericArrayType) type).getGenericComponentType());
+            return;
+        }
+        if (type instanceof WildcardType) {
+            checkValue(where, ((WildcardType) type).getUpperBounds()[0]);
+            return;
+        }
+        Type[] arguments = new Type[0];
+        if (type instanceof ParameterizedType) {
+            arguments = ((ParameterizedType) type).getActualTypeArguments();
+            type = ((ParameterizedType) type).getRawType();
+        }
+        if (!(type instanceof Class)) {
+            // a type variable, anything goes
+            return;
+        }
+
+        Class<?> clazz = (Class<?>) type;
+        switch (ClassMetadata.of(clazz).category) {
+            case OBJECT:
+                checkObject(clazz);
+                break;
+            case ARRAY:
+                checkItem(where, clazz.getComponentType());
+                break;
+            case COLLECTION:
+                if (arguments.length == 1) {
+                    checkItem(where, arguments[0]);
+                }
+                break;
+            case MAP:
+                if (arguments.length == 2) {
+                    checkItem(where, arguments[1]);
+                }
+                break;
+            default:
+        }
+    }
+
+    private void checkItem(String where, Type type) {
+        Class<?> clazz = type instanceof Class ? (Class<?>) type
+                : type instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) type).getRawType() : null;
+        if (clazz != null && ClassMetadata.of(clazz).category == TypeCategory.UNSUPPORTED && isConcrete(clazz)) {
+            problems.add("The items of " + where + " are " + clazz.getSimpleName() + ", which is not annotated with JsonSerializable");
+            return;
+        }
+        checkValue(where, type);
+    }
+
+    // an interface or an abstract class may still hold serializable instances
+    private static boolean isConcrete(Class<?> clazz) {
+        return clazz != Object.class && !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers());
+    }
+}
@@ -0,0 +1,255 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the converter needs to know about a class, resolved once and cached per class.
+ * The cache is a {@link ClassValue}, so entries go away together with their class.
+ */
+final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    final Class<?> type;
+    final TypeCategory category;
+    final PropertyMetadata[] properties;
+    final Method[] initializers;
+    /**
+     * Whether the class is {@link JsonCacheable}, and the {@link JsonCache} is on.
+     */
+    final boolean cacheable;
+    /**
+     * The names the constants of an enum are written and read by, by ordinal:
+     * their {@code toString()}, unless the enum is {@link JsonEnumNames}.
+     */
+    final String[] constantNames;
+    /**
+     * The {@link #constantNames} as quoted JSON strings.
+     */
+    final CachedJson[] constants;
+
+    /**
+     * The serializer generated at compile time, if there is one. It replaces reflection altogether.
+     */
+    final GeneratedJsonSerializer<Object> generated;
+
+    private volatile ObjectSerializer serializer;
+    // resolved when the class is first read from JSON
+    private volatile PropertyMetadata[] readableProperties;
+    private volatile MethodHandle constructor;
+    // resolved when the enum is first read from JSON
+    private volatile Map<String, Object> constantsByName;
+    // counted without synchronization, like the JVM's own invocation counters
+    private int invocations;
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        this.category = TypeCategory.of(type);
+        // only @JsonSerializable classes are inspected, everything else is written as a value
+        boolean serializable = category == TypeCategory.OBJECT;
+        this.generated = serializable ? findGenerated(type) : null;
+        if (generated != null) {
+            this.properties = resolveProperties(generated);
+            this.initializers = new Method[0];
+        }
+        else {
+            this.properties = serializable ? resolveProperties(type) : new PropertyMetadata[0];
+            this.initializers = serializable ? resolveInitializers(type) : new Method[0];
+        }
+        this.serializer = serializable ? new ReflectiveObjectSerializer(properties) : null;
+        this.cacheable = serializable && type.isAnnotationPresent(JsonCacheable.class) && JsonCache.isEnabled();
+        // also for a @JsonSerializable enum, which is written as an object but can still be a map key
+        boolean isEnum = type != Enum.class && Enum.class.isAssignableFrom(type);
+        if (isEnum && !type.isEnum()) {
+            // a constant with a body shares the constants of its enum
+            ClassMetadata declaring = of(type.getSuperclass());
+            this.constantNames = declaring.constantNames;
+            this.constants = declaring.constants;
+        }
+        else {
+            this.constantNames = isEnum ? resolveConstantNames(type) : null;
+            this.constants = constantNames != null ? quote(constantNames) : null;
+        }
+    }
+
+    static ClassMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * The serializer of a {@link JsonSerializable} class. The class is serialized reflectively until it has been
+     * serialized {@link ObjectSerializerGenerator#COMPILE_THRESHOLD} times, then a dedicated serializer is generated.
+     */
+    ObjectSerializer serializer() {
+        // generated code reads the fields directly already
+        if (generated != null) {
+            return serializer;
+        }
+        if (invocations <= ObjectSerializerGenerator.COMPILE_THRESHOLD) {
+            if (invocations++ == ObjectSerializerGenerator.COMPILE_THRESHOLD) {
+                compile();
+            }
+        }
+        return serializer;
+    }
+
+    /**
+     * Replaces the reflective serializer with a generated one, if this JVM allows it.
+     * When the class can't be defined, e.g. it fails verification, the reflective serializer is kept.
+     */
+    synchronized void compile() {
+        // the properties of a serializer generated at compile time have no fields to generate code for
+        if (generated != null) {
+            return;
+        }
+        if (!(serializer instanceof ReflectiveObjectSerializer) || !ObjectSerializerGenerator.isAvailable()) {
+            return;
+        }
+        try {
+            serializer = ObjectSerializerGenerator.generate(this);
+        } catch (ReflectiveOperationException | IOException | LinkageError e) {
+            // keep serializing reflectively
+        }
+    }
+
+    /**
+     * The properties {@link JsonBinder} sets. They are the {@link #properties} themselves,
+     * unless the class has a generated serializer, whose properties can only be read.
+     */
+    PropertyMetadata[] readableProperties() {
+        PropertyMetadata[] readable = readableProperties;
+        if (readable == null) {
+            readable = generated == null ? properties : resolveProperties(type);
+            readableProperties = readable;
+        }
+        return readable;
+    }
+
+    /**
+     * @return the constant of the enum written as the name, {@code null} if there is none;
+     *         the first one if two constants are written the same
+     */
+    Object constant(String name) {
+        Map<String, Object> byName = constantsByName;
+        if (byName == null) {
+            // the enum itself also for a constant with a body
+            Object[] values = (type.isEnum() ? type : type.getSuperclass()).getEnumConstants();
+            byName = new HashMap<>(values.length << 1);
+            for (int i = 0; i < values.length; i++) {
+                byName.putIfAbsent(constantNames[i], values[i]);
+            }
+            constantsByName = byName;
+        }
+        return byName.get(name);
+    }
+
+    /**
+     * Creates an empty instance to be filled from JSON, through the constructor without parameters.
+     */
+    Object newInstance() {
+        MethodHandle constructor = this.constructor;
+        if (constructor == null) {
+            constructor = findConstructor(type);
+            this.constructor = constructor;
+        }
+        try {
+            return constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonSerializationException("Can't create " + type.getSimpleName() + ": " + t.getMessage(), t);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new JsonSerializationException("The class " + type.getSimpleName() + " needs a constructor without parameters to be read from JSON");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeneratedJsonSerializer<Object> findGenerated(Class<?> type) {
+        return (GeneratedJsonSerializer<Object>) GeneratedSerializers.find(type);
+    }
+
+    private static PropertyMetadata[] resolveProperties(GeneratedJsonSerializer<?> generated) {
+        List<PropertyMetadata> properties = new ArrayList<>();
+        for (JsonProperty<?> property : generated.getProperties()) {
+            TypeCategory category = TypeCategory.of(property.type);
+            if (category != TypeCategory.UNSUPPORTED) {
+                properties.add(new PropertyMetadata(property, category));
+            }
+        }
+        return properties.toArray(new PropertyMetadata[0]);
+    }
+
+    private static PropertyMetadata[] resolveProperties(Class<?> type) {
+        List<PropertyMetadata> properties = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(JsonElement.class) || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            // fields of types the converter can't write are ignored
+            TypeCategory category = TypeCategory.of(field.getType());
+            if (category != TypeCategory.UNSUPPORTED) {
+                properties.add(new PropertyMetadata(field, category));
+            }
+        }
+        return properties.toArray(new PropertyMetadata[0]);
+    }
+
+    private static Method[] resolveInitializers(Class<?> type) {
+        List<Method> initializers = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(JsonInit.class)) {
+                method.setAccessible(true);
+                initializers.add(method);
+            }
+        }
+        return initializers.toArray(new Method[0]);
+    }
+
+    /**
+     * Takes the name of every constant once, by its {@code toString()} unless the enum is {@link JsonEnumNames}.
+     */
+    private static String[] resolveConstantNames(Class<?> type) {
+        boolean names = type.isAnnotationPresent(JsonEnumNames.class);
+        Object[] values = type.getEnumConstants();
+        String[] constantNames = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Enum<?> constant = (Enum<?>) values[i];
+            constantNames[i] = names ? constant.name() : constant.toString();
+        }
+        return constantNames;
+    }
+
+    private static CachedJson[] quote(String[] constantNames) {
+        CachedJson[] constants = new CachedJson[constantNames.length];
+        for (int i = 0; i < constantNames.length; i++) {
+            CachedJson json = new CachedJson('"' + JsonWriter.escape(constantNames[i]) + '"', 0);
+            json.utf8();
+            constants[i] = json;
+        }
+        return constants;
+    }
+}
@@ -0,0 +1,41 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of the {@code <Type>JsonSerializer} classes generated at compile time by the
+ * {@code json-serialization-processor} for {@link JsonSerializable} classes.
+ *
+ * Generated serializers are listed in {@code META-INF/services/io.gitlab.mihajlonesic.json.GeneratedJsonSerializer}.
+ * {@link JsonConverter} uses them instead of reflection: the fields are read directly
+ * and {@link JsonInit} methods are called directly.
+ *
+ * @param <T> the serialized class
+ */
+public abstract class GeneratedJsonSerializer<T> {
+
+    private final Class<T> type;
+    private final List<JsonProperty<T>> properties;
+
+    @SafeVarargs
+    protected GeneratedJsonSerializer(Class<T> type, JsonProperty<T>... properties) {
+        this.type = type;
+        this.properties = Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    public final Class<T> getType() {
+        return type;
+    }
+
+    final List<JsonProperty<T>> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Calls the {@link JsonInit} methods of the value, before it is serialized.
+     */
+    protected void initialize(T value) {
+    }
+}
@@ -0,0 +1,44 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the serializers generated at compile time, loaded once with {@link ServiceLoader}.
+ */
+final class GeneratedSerializers {
+
+    private static final Map<Class<?>, GeneratedJsonSerializer<?>> SERIALIZERS = load();
+
+    private GeneratedSerializers() {
+    }
+
+    static GeneratedJsonSerializer<?> find(Class<?> type) {
+        return SERIALIZERS.get(type);
+    }
+
+    private static Map<Class<?>, GeneratedJsonSerializer<?>> load() {
+        Map<Class<?>, GeneratedJsonSerializer<?>> serializers = new HashMap<>();
+        ClassLoader classLoader = GeneratedSerializers.class.getClassLoader();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        load(serializers, classLoader);
+        if (contextClassLoader != null && contextClassLoader != classLoader) {
+            load(serializers, contextClassLoader);
+        }
+        return serializers;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void load(Map<Class<?>, GeneratedJsonSerializer<?>> serializers, ClassLoader classLoader) {
+        try {
+            for (GeneratedJsonSerializer<?> serializer : ServiceLoader.load(GeneratedJsonSerializer.class, classLoader)) {
+                serializers.putIfAbsent(serializer.getType(), serializer);
+            }
+        } catch (ServiceConfigurationError e) {
+            // a stale or broken entry, the remaining classes fall back to reflection
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.BaseStream;
+
+/**
+ * Writes a value and everything it holds, keeping the path from the root on a stack of its own instead of
+ * the call stack, so how deep a graph can be is set by {@link JsonConfig#withMaxDepth(int)} alone.
+ *
+ * Every object, array, collection and map on the path is a frame. An object frame lets the serializer of its
+ * class write properties until it reaches one that may hold a container, which becomes the next frame once
+ * its value is read; when that container is written the serializer continues with the property after it.
+ * A container met again on its own path is a cycle, e.g. two people who are each other's spouse,
+ * and fails the conversion.
+ *
+ * A {@link JsonCacheable} object is written from the {@link JsonCache} when it is there. When it isn't, its
+ * frame diverts the output into a buffer of its own until the object is closed, and the JSON is cached then.
+ *
+ * A writer is kept per thread and reused together with its frames, the same as {@link BufferRecycler} buffers.
+ */
+final class GraphWriter {
+
+    // up to this depth the path itself is searched for cycles, deeper ones are tracked in an identity set
+    private static final int SCANNED_DEPTH = 16;
+
+    private static final ThreadLocal<GraphWriter> WRITERS = ThreadLocal.withInitial(GraphWriter::new);
+
+    private static final int OBJECT = 0;
+    private static final int ARRAY = 1;
+    private static final int ITEMS = 2;
+    private static final int ENTRIES = 3;
+
+    private JsonWriter writer;
+    private int maxDepth;
+    // the objects and arrays already open around what is written, e.g. the root array around a parallel chunk
+    private int enclosing;
+    private Frame[] frames = new Frame[SCANNED_DEPTH];
+    private int depth;
+    // the most frames open at once, from which the depth of a cached object is known
+    private int deepest;
+    private Set<Object> path;
+    private boolean inUse;
+
+    private GraphWriter() {
+    }
+
+    /**
+     * Writes the value, which may be {@code null} only inside a container.
+     */
+    static void write(Object value, JsonWriter writer, int maxDepth) throws JsonSerializationException {
+        write(value, writer, maxDepth, 0);
+    }
+
+    /**
+     * @param enclosing how deep in a document the value is, which counts towards the maximum depth
+     */
+    static void write(Object value, JsonWriter writer, int maxDepth, int enclosing) throws JsonSerializationException {
+        if (value == null) {
+            throw new JsonSerializationException("Can't serialize a null object");
+        }
+        if (ClassMetadata.of(value.getClass()).category == TypeCategory.UNSUPPORTED) {
+            throw new JsonSerializationException("The class " + value.getClass().getSimpleName() + " is not annotated with JsonSerializable");
+        }
+
+        GraphWriter graph = take();
+        try {
+            graph.writeAll(value, writer, maxDepth, enclosing);
+        } finally {
+            graph.inUse = false;
+        }
+    }
+
+    /**
+     * Writes items of an array separated by commas, as a part of the array, e.g. a chunk written in parallel.
+     */
+    static void writeItems(Object[] items, int from, int to, JsonWriter writer, int maxDepth, int enclosing) throws JsonSerializationException {
+        GraphWriter graph = take();
+        try {
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    writer.writeComma();
+                }
+                graph.writeAll(items[i], writer, maxDepth, enclosing);
+            }
+        } finally {
+            graph.inUse = false;
+        }
+    }
+
+    private static GraphWriter take() {
+        GraphWriter graph = WRITERS.get();
+        if (graph.inUse) {
+            // a conversion started from within another one, e.g. from a @JsonInit method
+            graph = new GraphWriter();
+        }
+        graph.inUse = true;
+        return graph;
+    }
+
+    private void writeAll(Object value, JsonWriter writer, int maxDepth, int enclosing) {
+        this.writer = writer;
+        this.maxDepth = maxDepth;
+        this.enclosing = enclosing;
+        this.deepest = 0;
+        try {
+            writeValue(value);
+            while (depth > 0) {
+                step(frames[depth - 1]);
+            }
+        } catch (JsonSerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonSerializationException(e.getMessage(), e);
+        } finally {
+            while (depth > 0) {
+                pop();
+            }
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Writes a scalar, or opens a frame for a container.
+     */
+    private void writeValue(Object value) {
+        if (value == null) {
+            writer.writeNull();
+            return;
+        }
+        writeValue(value, ClassMetadata.of(value.getClass()));
+    }
+
+    /**
+     * Writes an item of an array, a sequence or a map. Their items are mostly of one class,
+     * which is looked up once for every run of items of the same class.
+     */
+    private void writeItem(Frame frame, Object value) {
+        if (value == null) {
+            writer.writeNull();
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type != frame.itemType) {
+            frame.itemType = type;
+            frame.itemMetadata = ClassMetadata.of(type);
+        }
+        writeValue(value, frame.itemMetadata);
+    }
+
+    private void writeValue(Object value, ClassMetadata metadata) {
+        switch (metadata.category) {
+            case STRING:
+            case CHARACTER:
+                writer.writeQuoted(value.toString());
+                break;
+            case ENUM:
+                writer.writeCached(metadata.constants[((Enum<?>) value).ordinal()]);
+                break;
+            case OBJECT:
+                pushObject(value, metadata);
+                break;
+            case ARRAY:
+                if (value instanceof Object[]) {
+                    push(value, ARRAY).array = (Object[]) value;
+                    writer.beginArray();
+                }
+                else {
+                    writePrimitiveArray(value);
+                }
+                break;
+            case COLLECTION:
+                pushSequence(value);
+                break;
+            case MAP:
+                push(value, ENTRIES).iterator = ((Map<?, ?>) value).entrySet().iterator();
+                writer.beginObject();
+                break;
+            default:
+                writeScalar(value);
+        }
+    }
+
+    /**
+     * Writes the next property or item of the frame, or closes it.
+     */
+    private void step(Frame frame) {
+        switch (frame.kind) {
+            case OBJECT:
+                stepObject(frame);
+                break;
+            case ARRAY:
+                if (frame.position == frame.array.length) {
+                    writer.endArray();
+                    pop();
+                }
+                else {
+                    if (frame.position > 0) {
+                        writer.writeComma();
+                    }
+                    writeItem(frame, frame.array[frame.position++]);
+                }
+                break;
+            case ITEMS:
+                if (!frame.iterator.hasNext()) {
+                    writer.endArray();
+                    pop();
+                }
+                else {
+                    if (frame.position++ > 0) {
+                        writer.writeComma();
+                    }
+                    writeItem(frame, frame.iterator.next());
+                }
+                break;
+            default:
+                if (!frame.iterator.hasNext()) {
+                    writer.endObject();
+                    pop();
+                }
+                else {
+                    Map.Entry<?, ?> entry = (Map.Entry<?, ?>) frame.iterator.next();
+                    writeMapKey(entry.getKey(), frame.position++ == 0);
+                    writeItem(frame, entry.getValue());
+                }
+        }
+    }
+
+    /**
+     * An enum key, e.g. of an {@link java.util.EnumMap}, is written from the keys encoded once per enum,
+     * a String key is escaped on the way, and any other key is written as its {@code toString()}.
+     */
+    private void writeMapKey(Object key, boolean first) {
+        if (key instanceof Enum) {
+            writer.writeKey(JsonKey.of((Enum<?>) key), first);
+            return;
+        }
+        if (!first) {
+            writer.writeComma();
+        }
+        writer.writeKey(key instanceof String ? (String) key : String.valueOf(key));
+    }
+
+    private void stepObject(Frame frame) {
+        Object object = frame.value;
+        int state = frame.serializer.write(object, writer, frame.position >>> 1, (frame.position & 1) != 0);
+        int index = state >>> 1;
+        PropertyMetadata[] properties = frame.metadata.properties;
+        if (index == properties.length) {
+            writer.endObject();
+            if (frame.outer != null) {
+                CachedJson cached = JsonCache.put(object, writer.toString(), deepest - (depth - 1));
+                deepest = Math.max(frame.deepest, deepest);
+                writer.release();
+                writer = frame.outer;
+                frame.outer = null;
+                writer.writeCached(cached);
+            }
+            pop();
+            return;
+        }
+
+        boolean first = (state & 1) != 0;
+        PropertyMetadata property = properties[index];
+        Object value = frame.serializer.get(object, index);
+        if (isSkipped(property, value)) {
+            frame.position = (index + 1) << 1 | (first ? 1 : 0);
+            return;
+        }
+        // set before the value is written, it may open a frame of its own
+        frame.position = (index + 1) << 1;
+        writer.writeKey(property.token, first);
+        writeValue(value);
+    }
+
+    /**
+     * A property that isn't required is left out when it is {@code null} or an empty collection, map or iterator.
+     * Other sequences can't be looked into without consuming them.
+     */
+    static boolean isSkipped(PropertyMetadata property, Object value) {
+        if (property.required) {
+            return false;
+        }
+        return value == null
+                || value instanceof Collection && ((Collection<?>) value).isEmpty()
+                || value instanceof Map && ((Map<?, ?>) value).isEmpty()
+                || value instanceof Iterator && !((Iterator<?>) value).hasNext();
+    }
+
+    private void pushObject(Object object, ClassMetadata metadata) {
+        boolean cached = metadata.cacheable && !writer.isFormatted();
+        if (cached) {
+            CachedJson json = JsonCache.get(object);
+            if (json != null) {
+                if (enclosing + depth + json.depth <= maxDepth) {
+                    writer.writeCached(json);
+                    deepest = Math.max(deepest, depth + json.depth);
+                    return;
+                }
+                // cached where it nested less, written out so the maximum depth is enforced
+                cached = false;
+            }
+        }
+
+        int outside = deepest;
+        Frame frame = push(object, OBJECT);
+        if (cached) {
+            frame.outer = writer;
+            frame.deepest = outside;
+            deepest = depth;
+            writer = new CharJsonWriter();
+        }
+        initialize(object, metadata);
+        frame.metadata = metadata;
+        frame.serializer = metadata.serializer();
+        // the first property, with nothing written yet
+        frame.position = 1;
+        writer.beginObject();
+    }
+
+    /**
+     * Calls the {@link JsonInit} methods of the object, before it is written.
+     */
+    static void initialize(Object object, ClassMetadata metadata) {
+        if (metadata.generated != null) {
+            metadata.generated.initialize(object);
+        }
+        for (Method method : metadata.initializers) {
+            try {
+                method.invoke(object);
+            } catch (InvocationTargetException e) {
+                throw new JsonSerializationException("The method " + method.getName() + " failed: " + e.getCause(), e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new JsonSerializationException("Can't call the method " + method.getName() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * A collection, iterable, iterator, stream or spliterator is written one item at a time,
+     * so e.g. a database cursor is never loaded whole. A stream is closed once it has been written.
+     */
+    private void pushSequence(Object sequence) {
+        Frame frame = push(sequence, ITEMS);
+        if (sequence instanceof BaseStream) {
+            frame.stream = (BaseStream<?, ?>) sequence;
+            frame.iterator = frame.stream.iterator();
+        }
+        else if (sequence instanceof Spliterator) {
+            frame.iterator = Spliterators.iterator((Spliterator<?>) sequence);
+        }
+        else if (sequence instanceof Iterator) {
+            frame.iterator = (Iterator<?>) sequence;
+        }
+        else {
+            frame.iterator = ((Iterable<?>) sequence).iterator();
+        }
+        writer.beginArray();
+    }
+
+    private Frame push(Object value, int kind) {
+        if (enclosing + depth >= maxDepth) {
+            throw new JsonSerializationException("Can't serialize more than " + maxDepth + " nested objects and arrays");
+        }
+        checkCycle(value);
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth << 1);
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = new Frame();
+            frames[depth] = frame;
+        }
+        depth++;
+        if (depth > deepest) {
+            deepest = depth;
+        }
+        frame.kind = kind;
+        frame.value = value;
+        frame.position = 0;
+        return frame;
+    }
+
+    private void checkCycle(Object value) {
+        if (path == null && depth < SCANNED_DEPTH) {
+            for (int i = 0; i < depth; i++) {
+                if (frames[i].value == value) {
+                    throw cycle(value);
+                }
+            }
+            return;
+        }
+        if (path == null) {
+            path = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < depth; i++) {
+                path.add(frames[i].value);
+            }
+        }
+        if (!path.add(value)) {
+            throw cycle(value);
+        }
+    }
+
+    private static JsonSerializationException cycle(Object value) {
+        return new JsonSerializationException("Can't serialize a cycle, the " + value.getClass().getSimpleName() + " holds itself");
+    }
+
+    private void pop() {
+        Frame frame = frames[--depth];
+        if (frame.outer != null) {
+            // failed while the object was written for the cache
+            writer.release();
+            writer = frame.outer;
+            frame.outer = null;
+        }
+        if (path != null) {
+            path.remove(frame.value);
+            if (depth == 0) {
+                path = null;
+            }
+        }
+        BaseStream<?, ?> stream = frame.stream;
+        frame.value = null;
+        frame.metadata = null;
+        frame.serializer = null;
+        frame.array = null;
+        frame.iterator = null;
+        frame.stream = null;
+        frame.itemType = null;
+        frame.itemMetadata = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Primitive arrays are written in a loop of their own, so no element is boxed.
+     */
+    private void writePrimitiveArray(Object array) {
+        writer.beginArray();
+        if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.write(values[i]);
+            }
+        }
+        else {
+            // chars are quoted, the same as in a Character[]
+            char[] values = (char[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.writeComma();
+                }
+                writer.writeQuoted(values[i]);
+            }
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Writes a number or a boolean without turning it into a String first.
+     */
+    private void writeScalar(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writer.write(((Number) value).longValue());
+        }
+        else if (value instanceof Double) {
+            writer.write(((Double) value).doubleValue());
+        }
+        else if (value instanceof Float) {
+            writer.write(((Float) value).floatValue());
+        }
+        else if (value instanceof Boolean) {
+            writer.write(((Boolean) value).booleanValue());
+        }
+        else {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * An object, array, collection or map being written, reused for whatever is at its depth next.
+     */
+    private static final class Frame {
+
+        int kind;
+        // what cycles are looked for
+        Object value;
+        ClassMetadata metadata;
+        ObjectSerializer serializer;
+        Object[] array;
+        Iterator<?> iterator;
+        BaseStream<?, ?> stream;
+        // the writer of the enclosing document, while a cacheable object is written into a buffer of its own
+        JsonWriter outer;
+        // the most frames open at once outside of the cacheable object, while it is written
+        int deepest;
+        // the class of the last item, and its metadata
+        Class<?> itemType;
+        ClassMetadata itemMetadata;
+        /**
+         * The next item of an array or a sequence, or for an object the next property shifted left by one,
+         * with the lowest bit set while no property has been written.
+         */
+        int position;
+    }
+}
@@ -0,0 +1,51 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationCharacter;
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationLevel;
+
+/**
+ * A new line followed by the indentation of each level, built once per level when first needed.
+ * Only the first {@value #CACHED_LEVELS} levels are kept, deeper ones continue with one {@link #unit} per level,
+ * so a deeply nested document doesn't keep an indentation for every level it reaches.
+ */
+final class Indentation {
+
+    static final int CACHED_LEVELS = 32;
+
+    final String unit;
+    private final String[] newLines = new String[CACHED_LEVELS + 1];
+
+    Indentation(IndentationLevel indentationLevel, IndentationCharacter indentationCharacter) {
+        StringBuilder unit = new StringBuilder();
+        if (indentationCharacter.equals(IndentationCharacter.TAB)) {
+            unit.append(indentationCharacter.indentCharacter);
+        }
+        else {
+            for (int level = 0; level < indentationLevel.indentLevel; level++) {
+                unit.append(indentationCharacter.indentCharacter);
+            }
+        }
+        this.unit = unit.toString();
+    }
+
+    /**
+     * @return a new line indented to the level, not indented at all below the first level, and not
+     *         deeper than {@link #CACHED_LEVELS}; the rest of a deeper level is a {@link #unit} per level
+     */
+    String newLine(int level) {
+        if (level <= 0) {
+            return "\n";
+        }
+        level = Math.min(level, CACHED_LEVELS);
+        String newLine = newLines[level];
+        if (newLine == null) {
+            StringBuilder builder = new StringBuilder(1 + unit.length() * level).append('\n');
+            for (int i = 0; i < level; i++) {
+                builder.append(unit);
+            }
+            newLine = builder.toString();
+            newLines[level] = newLine;
+        }
+        return newLine;
+    }
+}
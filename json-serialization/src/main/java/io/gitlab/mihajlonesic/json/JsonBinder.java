@@ -0,0 +1,403 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.*;
+import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Binds JSON read by a {@link JsonReader} into {@link JsonSerializable} objects and the values of their fields,
+ * the reverse of {@link JsonConverter#convertToJson(Object)}. Keys are the same {@link JsonElement} keys,
+ * matched through the same per-class {@link ClassMetadata}.
+ *
+ * Objects are created through their constructor without parameters, and only the fields present in the JSON are set.
+ * Unknown keys are skipped. {@link JsonInit} methods are not called.
+ *
+ * Interfaces are filled with the usual implementations: a {@link List}, {@link Collection} or {@link Iterable}
+ * with an {@link ArrayList}, a {@link Set} with a {@link LinkedHashSet}, a {@link Map} with a {@link LinkedHashMap},
+ * and an {@link Iterator}, {@link java.util.stream.Stream} or {@link Spliterator} with those of an {@link ArrayList}.
+ */
+final class JsonBinder {
+
+    private final JsonReader reader;
+    private final int maxDepth;
+    // the objects and arrays open around the value being read
+    private int depth;
+
+    private JsonBinder(JsonReader reader, int maxDepth) {
+        this.reader = reader;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @param maxDepth how many objects and arrays may be nested in each other, see {@link JsonConfig#withMaxDepth(int)}
+     */
+    static Object read(JsonReader reader, Class<?> type, int maxDepth) throws JsonSerializationException {
+        try {
+            Object value = new JsonBinder(reader, maxDepth).readValue(type, type);
+            reader.expectEnd();
+            return value;
+        } catch (JsonSerializationException e) {
+            throw e;
+        } catch (StackOverflowError e) {
+            // values are read recursively, unlike they are written, so a maximum depth raised far enough runs out of stack
+            throw new JsonSerializationException("Can't read JSON: nested too deep for the stack of the thread", e);
+        } catch (Exception e) {
+            throw new JsonSerializationException("Can't read JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private Object readValue(Class<?> type, Type genericType) {
+        if (reader.readNull()) {
+            if (type.isPrimitive()) {
+                throw reader.error("expected a " + type.getName() + " but found null");
+            }
+            return null;
+        }
+
+        int c = reader.peek();
+        if (c != '{' && c != '[') {
+            return readContent(type, genericType);
+        }
+        if (++depth > maxDepth) {
+            throw reader.error("more than " + maxDepth + " nested objects and arrays");
+        }
+        Object value = readContent(type, genericType);
+        depth--;
+        return value;
+    }
+
+    private Object readContent(Class<?> type, Type genericType) {
+        switch (TypeCategory.of(type)) {
+            case NUMBER:
+                return readNumber(type);
+            case BOOLEAN:
+                return reader.readBoolean();
+            case CHARACTER:
+                return reader.readChar();
+            case STRING:
+                return reader.readString();
+            case ENUM:
+                return readEnum(type);
+            case ARRAY:
+                return readArray(type.getComponentType(), genericType);
+            case COLLECTION:
+                return readCollection(type, genericType);
+            case MAP:
+                return readMap(type, genericType);
+            case OBJECT:
+                return readObject(type);
+            default:
+                if (type == Object.class) {
+                    return readUntyped();
+                }
+                throw new JsonSerializationException("Can't read JSON into " + type.getName());
+        }
+    }
+
+    private Object readObject(Class<?> type) {
+        ClassMetadata metadata = ClassMetadata.of(type);
+        PropertyMetadata[] properties = metadata.readableProperties();
+        Object object = metadata.newInstance();
+
+        reader.beginObject();
+        int next = 0;
+        for (boolean first = true; reader.hasNextProperty(first); first = false) {
+            int index = reader.readKey(properties, next);
+            if (index < 0) {
+                reader.skipValue();
+                continue;
+            }
+
+            PropertyMetadata property = properties[index];
+            if (property.setter == null) {
+                throw new JsonSerializationException("The field " + property.field.getName() + " of " + type.getSimpleName() + " can't be set");
+            }
+            if (property.primitiveSetter != null) {
+                property.readPrimitive(object, reader);
+            }
+            else {
+                property.set(object, readValue(property.type, property.genericType));
+            }
+            next = index + 1;
+        }
+        return object;
+    }
+
+    private Object readNumber(Class<?> type) {
+        if (type == Integer.class || type == int.class) {
+            return reader.readInt();
+        }
+        if (type == Long.class || type == long.class) {
+            return reader.readLong();
+        }
+        if (type == Double.class || type == double.class) {
+            return reader.readDouble();
+        }
+        if (type == Float.class || type == float.class) {
+            return reader.readFloat();
+        }
+        if (type == Short.class || type == short.class) {
+            return reader.readShort();
+        }
+        return reader.readByte();
+    }
+
+    /**
+     * Constants are read by the name they are written as, see {@link JsonEnumNames}.
+     */
+    private Object readEnum(Class<?> type) {
+        String name = reader.readString();
+        Object constant = ClassMetadata.of(type).constant(name);
+        if (constant == null) {
+            throw reader.error("no constant " + name + " in " + type.getSimpleName());
+        }
+        return constant;
+    }
+
+    /**
+     * Primitive arrays are read in a loop of their own, so no element is boxed.
+     */
+    private Object readArray(Class<?> componentType, Type genericType) {
+        reader.beginArray();
+        if (componentType == int.class) {
+            int[] values = new int[8];
+            int length = 0;
+            for (boolean first = true; reader.hasNextItem(first); first = false) {
+                if (length == values.length) {
+                    values = Arrays.copyOf(values, length << 1);
+                }
+                values[length++] = reader.readInt();
+            }
+            return Arrays.copyOf(values, length);
+        }
+        if (componentType == long.class) {
+            long[] values = new long[8];
+            int length = 0;
+            for (boolean first = true; reader.hasNextItem(first); first = false) {
+                if (length == values.length) {
+                    values = Arrays.copyOf(values, length << 1);
+                }
+                values[length++] = reader.readLong();
+            }
+            return Arrays.copyOf(values, length);
+        }
+        if (componentType == double.class) {
+            double[] values = new double[8];
+            int length = 0;
+            for (boolean first = true; reader.hasNextItem(first); first = false) {
+                if (length == values.length) {
+                    values = Arrays.copyOf(values, length << 1);
+                }
+                values[length++] = reader.readDouble();
+            }
+            return Arrays.copyOf(values, length);
+        }
+
+        // everything else, the other primitives included, is collected boxed
+        Type itemType = genericType instanceof GenericArrayType ? ((GenericArrayType) genericType).getGenericComponentType() : componentType;
+        Class<?> itemClass = componentType.isPrimitive() ? componentType : rawType(itemType);
+        List<Object> items = new ArrayList<>();
+        for (boolean first = true; reader.hasNextItem(first); first = false) {
+            items.add(readValue(itemClass, itemType));
+        }
+        Object array = Array.newInstance(componentType, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Array.set(array, i, items.get(i));
+        }
+        return array;
+    }
+
+    private Object readCollection(Class<?> type, Type genericType) {
+        Type itemType = typeArgument(genericType, 0);
+        Class<?> itemClass = rawType(itemType);
+        Collection<Object> items = newCollection(type, itemClass);
+
+        reader.beginArray();
+        for (boolean first = true; reader.hasNextItem(first); first = false) {
+            items.add(readValue(itemClass, itemType));
+        }
+
+        if (Iterator.class.isAssignableFrom(type)) {
+            return items.iterator();
+        }
+        if (IntStream.class.isAssignableFrom(type)) {
+            return items.stream().mapToInt(item -> ((Number) item).intValue());
+        }
+        if (LongStream.class.isAssignableFrom(type)) {
+            return items.stream().mapToLong(item -> ((Number) item).longValue());
+        }
+        if (DoubleStream.class.isAssignableFrom(type)) {
+            return items.stream().mapToDouble(item -> ((Number) item).doubleValue());
+        }
+        if (BaseStream.class.isAssignableFrom(type)) {
+            return items.stream();
+        }
+        if (Spliterator.class.isAssignableFrom(type)) {
+            return items.spliterator();
+        }
+        return items;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<Object> newCollection(Class<?> type, Class<?> itemClass) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            return (Collection<Object>) ClassMetadata.of(type).newInstance();
+        }
+        if (type == EnumSet.class && itemClass.isEnum()) {
+            return (Collection<Object>) (Collection) EnumSet.noneOf((Class<? extends Enum>) itemClass);
+        }
+        if (SortedSet.class.isAssignableFrom(type)) {
+            return new TreeSet<>();
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return new LinkedHashSet<>();
+        }
+        if (Queue.class.isAssignableFrom(type)) {
+            return new ArrayDeque<>();
+        }
+        if (type.isAssignableFrom(ArrayList.class) || BaseStream.class.isAssignableFrom(type)
+            || Iterator.class.isAssignableFrom(type) || Spliterator.class.isAssignableFrom(type)) {
+            return new ArrayList<>();
+        }
+        throw new JsonSerializationException("Can't read JSON into " + type.getName());
+    }
+
+    /**
+     * Reads an object into a map, its keys converted to the type of the keys of the map.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readMap(Class<?> type, Type genericType) {
+        Class<?> keyClass = rawType(typeArgument(genericType, 0));
+        Type valueType = typeArgument(genericType, 1);
+        Class<?> valueClass = rawType(valueType);
+
+        Map<Object, Object> map;
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers()) && type != EnumMap.class) {
+            map = (Map<Object, Object>) ClassMetadata.of(type).newInstance();
+        }
+        else if (type == EnumMap.class && keyClass.isEnum()) {
+            map = new EnumMap(keyClass);
+        }
+        else if (SortedMap.class.isAssignableFrom(type)) {
+            map = new TreeMap<>();
+        }
+        else if (type.isAssignableFrom(LinkedHashMap.class)) {
+            map = new LinkedHashMap<>();
+        }
+        else {
+            throw new JsonSerializationException("Can't read JSON into " + type.getName());
+        }
+
+        reader.beginObject();
+        for (boolean first = true; reader.hasNextProperty(first); first = false) {
+            String key = reader.readKey();
+            map.put(mapKey(key, keyClass), readValue(valueClass, valueType));
+        }
+        return map;
+    }
+
+    private Object mapKey(String key, Class<?> keyClass) {
+        if (keyClass == String.class || keyClass == Object.class) {
+            return key;
+        }
+        try {
+            if (keyClass.isEnum()) {
+                Object constant = ClassMetadata.of(keyClass).constant(key);
+                if (constant == null) {
+                    throw reader.error("no constant " + key + " in " + keyClass.getSimpleName());
+                }
+                return constant;
+            }
+            if (keyClass == Integer.class) {
+                return Integer.valueOf(key);
+            }
+            if (keyClass == Long.class) {
+                return Long.valueOf(key);
+            }
+            if (keyClass == Double.class) {
+                return Double.valueOf(key);
+            }
+            if (keyClass == Float.class) {
+                return Float.valueOf(key);
+            }
+            if (keyClass == Short.class) {
+                return Short.valueOf(key);
+            }
+            if (keyClass == Byte.class) {
+                return Byte.valueOf(key);
+            }
+            if (keyClass == Boolean.class) {
+                return Boolean.valueOf(key);
+            }
+            if (keyClass == Character.class && key.length() == 1) {
+                return key.charAt(0);
+            }
+        } catch (IllegalArgumentException e) {
+            throw reader.error("the key \"" + key + "\" is not a " + keyClass.getSimpleName());
+        }
+        throw new JsonSerializationException("Can't read JSON into a map with " + keyClass.getName() + " keys");
+    }
+
+    /**
+     * Reads a value of an unknown type: an object as a {@link LinkedHashMap}, an array as an {@link ArrayList},
+     * a whole number as a {@link Long}, or a {@link java.math.BigInteger} if it doesn't fit in one,
+     * and any other number as a {@link Double}.
+     */
+    private Object readUntyped() {
+        int c = reader.peek();
+        if (c == '{') {
+            return readMap(Map.class, Map.class);
+        }
+        if (c == '[') {
+            return readCollection(List.class, List.class);
+        }
+        if (c == '"') {
+            return reader.readString();
+        }
+        if (c == 't' || c == 'f') {
+            return reader.readBoolean();
+        }
+        return reader.readNumber();
+    }
+
+    /**
+     * @return the type argument at the index, e.g. {@code Phone} of {@code List<Phone>}, {@link Object} if there is none
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+}
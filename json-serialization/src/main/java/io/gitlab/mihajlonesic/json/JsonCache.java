@@ -0,0 +1,154 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The JSON of {@link JsonCacheable} objects, shared by all conversions.
+ *
+ * Objects are looked up by identity and held weakly, so the cache never keeps one alive, and only the
+ * {@value #CACHE_SIZE_PROPERTY} (default {@value #DEFAULT_CACHE_SIZE}) objects used most recently are kept.
+ * {@code 0} turns caching off. Pretty printed output is always written from the objects themselves.
+ */
+public final class JsonCache {
+
+    static final String CACHE_SIZE_PROPERTY = "io.gitlab.mihajlonesic.json.cacheSize";
+    static final int DEFAULT_CACHE_SIZE = 1000;
+    static final int CACHE_SIZE = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+
+    private static final Object LOCK = new Object();
+    private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+    // in access order, the least recently used first
+    private static final LinkedHashMap<IdentityKey, CachedJson> ENTRIES = new LinkedHashMap<IdentityKey, CachedJson>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IdentityKey, CachedJson> eldest) {
+            if (size() > CACHE_SIZE) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private JsonCache() {
+    }
+
+    /**
+     * @return how many times an object was written from the cache
+     */
+    public static long getHits() {
+        synchronized (LOCK) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return how many times an object wasn't cached yet and was written from its properties
+     */
+    public static long getMisses() {
+        synchronized (LOCK) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return how many objects were dropped to make room for others, not counting the ones garbage collected
+     */
+    public static long getEvictions() {
+        synchronized (LOCK) {
+            return evictions;
+        }
+    }
+
+    public static int size() {
+        synchronized (LOCK) {
+            purge();
+            return ENTRIES.size();
+        }
+    }
+
+    /**
+     * Drops every cached object, e.g. after one of them was changed after all. The counters keep counting.
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            ENTRIES.clear();
+            purge();
+        }
+    }
+
+    static boolean isEnabled() {
+        return CACHE_SIZE > 0;
+    }
+
+    /**
+     * @return the JSON of the object, {@code null} if it has to be written and then {@link #put}
+     */
+    static CachedJson get(Object object) {
+        IdentityKey key = new IdentityKey(object, null);
+        synchronized (LOCK) {
+            CachedJson cached = ENTRIES.get(key);
+            if (cached != null) {
+                hits++;
+            }
+            else {
+                misses++;
+            }
+            return cached;
+        }
+    }
+
+    static CachedJson put(Object object, String json, int depth) {
+        CachedJson cached = new CachedJson(json, depth);
+        IdentityKey key = new IdentityKey(object, COLLECTED);
+        synchronized (LOCK) {
+            purge();
+            ENTRIES.put(key, cached);
+        }
+        return cached;
+    }
+
+    private static void purge() {
+        Reference<?> collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            ENTRIES.remove(collected);
+        }
+    }
+
+    /**
+     * Equal only to a key of the same object, and once the object is collected only to itself.
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        IdentityKey(Object object, ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.hash = System.identityHashCode(object);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+            Object object = get();
+            return object != null && object == ((IdentityKey) other).get();
+        }
+    }
+}
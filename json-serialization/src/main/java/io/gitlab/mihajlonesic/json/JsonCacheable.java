@@ -0,0 +1,16 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link JsonSerializable} class whose instances never change, so each one is written once
+ * and its JSON is kept in the {@link JsonCache} for the next time, on its own or inside other objects.
+ * {@link JsonInit} methods are called only when the JSON is written, not when it is taken from the cache.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonCacheable {
+}
@@ -0,0 +1,181 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationCharacter;
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationLevel;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options for {@link JsonConverter}. Immutable, every {@code with...} method returns a changed copy.
+ *
+ * <pre>
+ * JsonConfig config = JsonConfig.DEFAULT.withPrettyPrinting(IndentationLevel.TWO, IndentationCharacter.SPACE, true);
+ * </pre>
+ */
+public final class JsonConfig {
+
+    /**
+     * Compact output.
+     */
+    public static final JsonConfig DEFAULT = new JsonConfig();
+
+    /**
+     * The smallest root collection or array written in parallel by {@link #withParallelism()}.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    /**
+     * How many objects, arrays, collections and maps may be nested in each other unless {@link #withMaxDepth(int)} says otherwise.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 1000;
+
+    private boolean prettyPrinting;
+    private IndentationLevel indentationLevel = IndentationLevel.FOUR;
+    private IndentationCharacter indentationCharacter = IndentationCharacter.SPACE;
+    private boolean spaceAfterColon = true;
+    private ForkJoinPool forkJoinPool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    private JsonConfig() {
+    }
+
+    private JsonConfig copy() {
+        JsonConfig copy = new JsonConfig();
+        copy.prettyPrinting = prettyPrinting;
+        copy.indentationLevel = indentationLevel;
+        copy.indentationCharacter = indentationCharacter;
+        copy.spaceAfterColon = spaceAfterColon;
+        copy.forkJoinPool = forkJoinPool;
+        copy.parallelThreshold = parallelThreshold;
+        copy.maxDepth = maxDepth;
+        return copy;
+    }
+
+    /**
+     * Indents the output while it is being written, the same as {@link JsonConverter#pretty(String)}.
+     */
+    public JsonConfig withPrettyPrinting() {
+        return withPrettyPrinting(IndentationLevel.FOUR, IndentationCharacter.SPACE, true);
+    }
+
+    /**
+     * Indents the output while it is being written, the same as
+     * {@link JsonConverter#pretty(String, IndentationLevel, IndentationCharacter, boolean)}.
+     */
+    public JsonConfig withPrettyPrinting(IndentationLevel indentationLevel, IndentationCharacter indentationCharacter, boolean spaceAfterColon) {
+        JsonConfig copy = copy();
+        copy.prettyPrinting = true;
+        copy.indentationLevel = indentationLevel;
+        copy.indentationCharacter = indentationCharacter;
+        copy.spaceAfterColon = spaceAfterColon;
+        return copy;
+    }
+
+    /**
+     * Writes everything on one line, without spaces.
+     */
+    public JsonConfig withoutPrettyPrinting() {
+        JsonConfig copy = copy();
+        copy.prettyPrinting = false;
+        return copy;
+    }
+
+    /**
+     * Serializes a root collection or array of at least {@value #DEFAULT_PARALLEL_THRESHOLD} items
+     * in chunks on the common {@link ForkJoinPool}.
+     */
+    public JsonConfig withParallelism() {
+        return withParallelism(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Serializes a root collection or array of at least {@code threshold} items in chunks on the pool,
+     * the output is the same as when it is written sequentially. The items are serialized concurrently,
+     * so their {@link JsonInit} methods must not depend on each other.
+     *
+     * @param forkJoinPool where to serialize the chunks
+     * @param threshold the smallest collection or array worth splitting
+     */
+    public JsonConfig withParallelism(ForkJoinPool forkJoinPool, int threshold) {
+        Objects.requireNonNull(forkJoinPool, "forkJoinPool");
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The parallel threshold must be positive, was " + threshold);
+        }
+        JsonConfig copy = copy();
+        copy.forkJoinPool = forkJoinPool;
+        copy.parallelThreshold = threshold;
+        return copy;
+    }
+
+    /**
+     * Serializes everything on the calling thread.
+     */
+    public JsonConfig withoutParallelism() {
+        JsonConfig copy = copy();
+        copy.forkJoinPool = null;
+        copy.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        return copy;
+    }
+
+    /**
+     * Fails the conversion of anything nested deeper than this, e.g. a linked list longer than it,
+     * and the reading of JSON nested deeper than this.
+     * Writing is bounded by the heap only, not by the thread's stack, so it can be raised freely;
+     * reading takes a few stack frames per level. A cycle fails the conversion at any depth.
+     */
+    public JsonConfig withMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("The maximum depth must be positive, was " + maxDepth);
+        }
+        JsonConfig copy = copy();
+        copy.maxDepth = maxDepth;
+        return copy;
+    }
+
+    public boolean isPrettyPrinting() {
+        return prettyPrinting;
+    }
+
+    public IndentationLevel getIndentationLevel() {
+        return indentationLevel;
+    }
+
+    public IndentationCharacter getIndentationCharacter() {
+        return indentationCharacter;
+    }
+
+    public boolean isSpaceAfterColon() {
+        return spaceAfterColon;
+    }
+
+    public boolean isParallel() {
+        return forkJoinPool != null;
+    }
+
+    /**
+     * @return the pool root collections and arrays are serialized on, {@code null} unless {@link #isParallel()}
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Wraps the writer into the formatting these options ask for.
+     */
+    JsonWriter format(JsonWriter writer) {
+        if (!prettyPrinting) {
+            return writer;
+        }
+        return new PrettyJsonWriter(writer, new Indentation(indentationLevel, indentationCharacter), spaceAfterColon);
+    }
+}
@@ -0,0 +1,453 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+/**
+ * @author Mihajlo Nesic
+ * https://mihajlonesic.gitlab.io/
+ * https://github.com/MihajloNesic
+ */
+public class JsonConverter {
+
+    private JsonConverter() {
+    }
+
+    public static String convertToJson(Object object) throws JsonSerializationException {
+        return convertToJson(object, JsonConfig.DEFAULT);
+    }
+
+    /**
+     * @param object an object to serialize
+     * @param config how to write the JSON, e.g. {@link JsonConfig#withPrettyPrinting()}
+     */
+    public static String convertToJson(Object object, JsonConfig config) throws JsonSerializationException {
+        CharJsonWriter writer = new CharJsonWriter();
+        try {
+            writeRoot(object, config.format(writer), config);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Encodes the JSON to UTF-8 while it is being produced,
+     * instead of building a String and encoding it afterwards.
+     *
+     * @param object an object to serialize
+     * @return the JSON as UTF-8 bytes
+     */
+    public static byte[] convertToJsonBytes(Object object) throws JsonSerializationException {
+        return convertToJsonBytes(object, JsonConfig.DEFAULT);
+    }
+
+    public static byte[] convertToJsonBytes(Object object, JsonConfig config) throws JsonSerializationException {
+        Utf8JsonWriter writer = new Utf8JsonWriter();
+        try {
+            writeRoot(object, config.format(writer), config);
+            return writer.toByteArray();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Writes the JSON to the target while it is being produced, through a fixed-size buffer,
+     * instead of building the whole document in memory first.
+     * The target is not flushed nor closed.
+     *
+     * @param object an object to serialize
+     * @param target where to write the JSON, e.g. a {@link Writer} or a {@link StringBuilder}
+     */
+    public static void convertToJson(Object object, Appendable target) throws JsonSerializationException {
+        convertToJson(object, target, JsonConfig.DEFAULT);
+    }
+
+    public static void convertToJson(Object object, Appendable target, JsonConfig config) throws JsonSerializationException {
+        writeAndFlush(object, new CharJsonWriter(target), config);
+    }
+
+    /**
+     * Writes the JSON to the stream as UTF-8 while it is being produced.
+     * The stream is flushed, but not closed.
+     *
+     * @param object an object to serialize
+     * @param outputStream where to write the JSON
+     */
+    public static void convertToJson(Object object, OutputStream outputStream) throws JsonSerializationException {
+        convertToJson(object, outputStream, JsonConfig.DEFAULT);
+    }
+
+    public static void convertToJson(Object object, OutputStream outputStream, JsonConfig config) throws JsonSerializationException {
+        writeAndFlush(object, new Utf8JsonWriter(outputStream), config);
+        flush(outputStream);
+    }
+
+    /**
+     * Writes the JSON to the channel as UTF-8 while it is being produced.
+     * The channel is not closed.
+     *
+     * @param object an object to serialize
+     * @param channel where to write the JSON
+     */
+    public static void convertToJson(Object object, WritableByteChannel channel) throws JsonSerializationException {
+        convertToJson(object, channel, JsonConfig.DEFAULT);
+    }
+
+    public static void convertToJson(Object object, WritableByteChannel channel, JsonConfig config) throws JsonSerializationException {
+        writeAndFlush(object, new Utf8JsonWriter(Channels.newOutputStream(channel)), config);
+    }
+
+    /**
+     * Puts the JSON into the buffer as UTF-8, starting at its position.
+     * If the JSON doesn't fit, an exception is thrown and the buffer may hold a part of it.
+     *
+     * @param object an object to serialize
+     * @param buffer where to put the JSON
+     */
+    public static void convertToJson(Object object, ByteBuffer buffer) throws JsonSerializationException {
+        convertToJson(object, buffer, JsonConfig.DEFAULT);
+    }
+
+    public static void convertToJson(Object object, ByteBuffer buffer, JsonConfig config) throws JsonSerializationException {
+        writeAndFlush(object, new Utf8JsonWriter(new Utf8JsonWriter.ByteBufferOutputStream(buffer)), config);
+    }
+
+    /**
+     * Writes the objects as a JSON array, the same as {@link #convertToJson(Object, Appendable)} of a collection holding them,
+     * taking them one at a time from the iterable and writing all of them through a single buffer.
+     * The items are written on the calling thread. The target is not flushed nor closed.
+     *
+     * @param objects objects to serialize, e.g. a lazily loaded batch of records
+     * @param target where to write the JSON, e.g. a {@link Writer}
+     */
+    public static void writeAll(Iterable<?> objects, Appendable target) throws JsonSerializationException {
+        writeAll(objects, target, JsonConfig.DEFAULT);
+    }
+
+    public static void writeAll(Iterable<?> objects, Appendable target, JsonConfig config) throws JsonSerializationException {
+        writeAllAndFlush(objects.iterator(), new CharJsonWriter(target), config);
+    }
+
+    /**
+     * Writes the objects as a JSON array in UTF-8, the same as {@link #writeAll(Iterable, Appendable)}.
+     * The stream is flushed, but not closed.
+     */
+    public static void writeAll(Iterable<?> objects, OutputStream outputStream) throws JsonSerializationException {
+        writeAll(objects, outputStream, JsonConfig.DEFAULT);
+    }
+
+    public static void writeAll(Iterable<?> objects, OutputStream outputStream, JsonConfig config) throws JsonSerializationException {
+        writeAllAndFlush(objects.iterator(), new Utf8JsonWriter(outputStream), config);
+        flush(outputStream);
+    }
+
+    /**
+     * Writes every object on a line of its own, as newline-delimited JSON (NDJSON) in UTF-8.
+     * Each line is the same as {@link #convertToJson(Object)} of the object, followed by {@code \n}.
+     * All objects are written through a single buffer. The stream is flushed, but not closed.
+     *
+     * @param objects objects to serialize, e.g. a cursor over a batch of records
+     * @param outputStream where to write the lines
+     */
+    public static void writeNdjson(Iterator<?> objects, OutputStream outputStream) throws JsonSerializationException {
+        writeNdjson(objects, outputStream, JsonConfig.DEFAULT);
+    }
+
+    /**
+     * Pretty printing doesn't apply, every object stays on a line of its own.
+     */
+    public static void writeNdjson(Iterator<?> objects, OutputStream outputStream, JsonConfig config) throws JsonSerializationException {
+        writeLinesAndFlush(objects, new Utf8JsonWriter(outputStream), config);
+        flush(outputStream);
+    }
+
+    /**
+     * Writes every object on a line of its own, the same as {@link #writeNdjson(Iterator, OutputStream)}.
+     * The target is not flushed nor closed.
+     */
+    public static void writeNdjson(Iterator<?> objects, Appendable target) throws JsonSerializationException {
+        writeNdjson(objects, target, JsonConfig.DEFAULT);
+    }
+
+    /**
+     * Pretty printing doesn't apply, every object stays on a line of its own.
+     */
+    public static void writeNdjson(Iterator<?> objects, Appendable target, JsonConfig config) throws JsonSerializationException {
+        writeLinesAndFlush(objects, new CharJsonWriter(target), config);
+    }
+
+    private static void writeAllAndFlush(Iterator<?> objects, JsonWriter writer, JsonConfig config) {
+        GraphWriter.write(objects, config.format(writer), config.getMaxDepth());
+        writer.flush();
+    }
+
+    private static void writeLinesAndFlush(Iterator<?> objects, JsonWriter writer, JsonConfig config) {
+        while (objects.hasNext()) {
+            GraphWriter.write(objects.next(), writer, config.getMaxDepth());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static void flush(OutputStream outputStream) {
+        try {
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new JsonSerializationException("Can't write JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeAndFlush(Object object, JsonWriter writer, JsonConfig config) {
+        writeRoot(object, config.format(writer), config);
+        writer.flush();
+    }
+
+    private static void writeRoot(Object object, JsonWriter writer, JsonConfig config) throws JsonSerializationException {
+        Object[] items = config.isParallel() ? parallelItems(object, config.getParallelThreshold()) : null;
+        if (items == null) {
+            GraphWriter.write(object, writer, config.getMaxDepth());
+            return;
+        }
+
+        try {
+            ParallelArrayWriter.write(items, writer, config.getForkJoinPool(), config.getMaxDepth());
+        } catch (JsonSerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonSerializationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the items of a root collection or array big enough to be written in parallel, otherwise {@code null}
+     */
+    private static Object[] parallelItems(Object object, int threshold) {
+        if (object instanceof Object[]) {
+            Object[] array = (Object[]) object;
+            return array.length >= threshold ? array : null;
+        }
+        if (object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            return collection.size() >= threshold ? collection.toArray() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Writes only what differs between two objects of the same class, as a JSON Merge Patch (RFC 7396)
+     * that turns the JSON of the previous one into the JSON of the current one.
+     * To follow changes of a single object, keep a {@link JsonSnapshot} of it instead.
+     */
+    public static String convertToMergePatch(Object previous, Object current) throws JsonSerializationException {
+        return JsonSnapshot.of(previous).mergePatch(current);
+    }
+
+    /**
+     * Checks the class and the {@link JsonSerializable} classes its properties hold, and generates their serializers,
+     * so the first conversion pays for none of it. Fails if the class isn't serializable, if a {@link JsonInit}
+     * method has parameters, or if an array, collection or map property holds items of a class that isn't.
+     */
+    public static <T> JsonSerializer<T> compile(Class<T> type) throws JsonSerializationException {
+        return compile(type, JsonConfig.DEFAULT);
+    }
+
+    public static <T> JsonSerializer<T> compile(Class<T> type, JsonConfig config) throws JsonSerializationException {
+        Objects.requireNonNull(config, "config");
+        List<String> problems = new ArrayList<>();
+        new ClassChecker(problems).check(type);
+        failOn(problems, "Can't compile " + type.getSimpleName());
+        return new JsonSerializer<>(type, config);
+    }
+
+    /**
+     * Compiles every class, e.g. at startup, and reports the problems of all of them at once.
+     */
+    public static List<JsonSerializer<?>> warmUp(Class<?>... types) throws JsonSerializationException {
+        return warmUp(Arrays.asList(types), new ArrayList<>(), "Can't warm up");
+    }
+
+    /**
+     * Compiles every {@link JsonSerializable} class of the package and its subpackages,
+     * found in directories and jars of the context class loader.
+     */
+    public static List<JsonSerializer<?>> warmUp(String packageName) throws JsonSerializationException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = JsonConverter.class.getClassLoader();
+        }
+        List<String> problems = new ArrayList<>();
+        List<Class<?>> types = PackageScanner.scan(packageName, classLoader, problems);
+        return warmUp(types, problems, "Can't warm up " + packageName);
+    }
+
+    private static List<JsonSerializer<?>> warmUp(List<Class<?>> types, List<String> problems, String failure) {
+        ClassChecker checker = new ClassChecker(problems);
+        List<JsonSerializer<?>> serializers = new ArrayList<>();
+        for (Class<?> type : types) {
+            checker.check(type);
+            serializers.add(new JsonSerializer<>(type, JsonConfig.DEFAULT));
+        }
+        failOn(problems, failure);
+        return serializers;
+    }
+
+    private static void failOn(List<String> problems, String failure) {
+        if (!problems.isEmpty()) {
+            throw new JsonSerializationException(failure + ": " + String.join("; ", problems));
+        }
+    }
+
+    /**
+     * Reads JSON into an instance of the class, the reverse of {@link #convertToJson(Object)}.
+     * Properties are matched by their {@link JsonElement} keys, unknown keys are skipped
+     * and fields missing from the JSON keep the value the constructor without parameters gave them.
+     *
+     * @param json a JSON document
+     * @param type a {@link JsonSerializable} class, or any type a field can have, e.g. {@code String[].class}
+     * @return the value, {@code null} if the JSON is {@code null}
+     */
+    public static <T> T fromJson(String json, Class<T> type) throws JsonSerializationException {
+        return fromJson(json, type, JsonConfig.DEFAULT);
+    }
+
+    /**
+     * Reads objects and arrays nested up to {@link JsonConfig#getMaxDepth()} deep; the other options only apply to writing.
+     */
+    public static <T> T fromJson(String json, Class<T> type, JsonConfig config) throws JsonSerializationException {
+        char[] buffer = BufferRecycler.takeChars(json.length());
+        try {
+            json.getChars(0, json.length(), buffer, 0);
+            return bind(new CharJsonReader(buffer, json.length()), type, config);
+        } finally {
+            BufferRecycler.release(buffer);
+        }
+    }
+
+    /**
+     * Reads the whole reader, which is not closed, and the JSON in it the same as {@link #fromJson(String, Class)}.
+     */
+    public static <T> T fromJson(Reader reader, Class<T> type) throws JsonSerializationException {
+        return fromJson(reader, type, JsonConfig.DEFAULT);
+    }
+
+    public static <T> T fromJson(Reader reader, Class<T> type, JsonConfig config) throws JsonSerializationException {
+        char[] buffer = BufferRecycler.takeChars(JsonWriter.STREAMING_CAPACITY);
+        try {
+            int length = 0;
+            int read;
+            while ((read = reader.read(buffer, length, buffer.length - length)) >= 0) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+            }
+            return bind(new CharJsonReader(buffer, length), type, config);
+        } catch (IOException e) {
+            throw new JsonSerializationException("Can't read JSON: " + e.getMessage(), e);
+        } finally {
+            BufferRecycler.release(buffer);
+        }
+    }
+
+    /**
+     * Reads JSON encoded in UTF-8 the same as {@link #fromJson(String, Class)}, without decoding it into a String first.
+     */
+    public static <T> T fromJson(byte[] json, Class<T> type) throws JsonSerializationException {
+        return fromJson(json, type, JsonConfig.DEFAULT);
+    }
+
+    public static <T> T fromJson(byte[] json, Class<T> type, JsonConfig config) throws JsonSerializationException {
+        return bind(new Utf8JsonReader(json, json.length), type, config);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T bind(JsonReader reader, Class<T> type, JsonConfig config) {
+        // a primitive type stands for its wrapper
+        return (T) JsonBinder.read(reader, type, config.getMaxDepth());
+    }
+
+    /**
+     * A simple implementation to pretty-print JSON file.
+     * Author: asksw0rder
+     *
+     * @param unformattedJsonString a JSON object as String
+     * @param indentationLevel a level of indentation ({@link IndentationLevel}
+     * @param indentationCharacter an indentation character ({@link IndentationCharacter}
+     * @param spaceAfterColon should there be a space after a colon
+     * @return formatted JSON String
+     */
+    public static String pretty(String unformattedJsonString, IndentationLevel indentationLevel, IndentationCharacter indentationCharacter, boolean spaceAfterColon) {
+        StringWriter prettyJSONWriter = new StringWriter(unformattedJsonString.length() + (unformattedJsonString.length() >> 1));
+        pretty(new StringReader(unformattedJsonString), prettyJSONWriter, indentationLevel, indentationCharacter, spaceAfterColon);
+        return prettyJSONWriter.toString();
+    }
+
+    public static String pretty(String unformattedJsonString) {
+        return pretty(unformattedJsonString, IndentationLevel.FOUR, IndentationCharacter.SPACE, true);
+    }
+
+    public static String pretty(String unformattedJsonString, IndentationLevel indentationLevel) {
+        return pretty(unformattedJsonString, indentationLevel, IndentationCharacter.SPACE, true);
+    }
+
+    /**
+     * Pretty-prints JSON while it is being read, through fixed-size buffers,
+     * so documents of any size can be formatted in constant memory.
+     * The writer is not flushed nor closed.
+     *
+     * @param reader where to read the unformatted JSON from
+     * @param writer where to write the formatted JSON
+     * @param indentationLevel a level of indentation ({@link IndentationLevel}
+     * @param indentationCharacter an indentation character ({@link IndentationCharacter}
+     * @param spaceAfterColon should there be a space after a colon
+     */
+    public static void pretty(Reader reader, Writer writer, IndentationLevel indentationLevel, IndentationCharacter indentationCharacter, boolean spaceAfterColon) throws JsonSerializationException {
+        try {
+            new PrettyPrinter(writer, indentationLevel, indentationCharacter, spaceAfterColon).print(reader);
+        } catch (IOException e) {
+            throw new JsonSerializationException("Can't pretty-print JSON: " + e.getMessage(), e);
+        }
+    }
+
+    public static void pretty(Reader reader, Writer writer) throws JsonSerializationException {
+        pretty(reader, writer, IndentationLevel.FOUR, IndentationCharacter.SPACE, true);
+    }
+
+    public enum IndentationLevel {
+        TWO(2),
+        THREE(3),
+        FOUR(4),
+        EIGHT(8);
+
+        int indentLevel;
+
+        IndentationLevel(int indentLevel) {
+            this.indentLevel = indentLevel;
+        }
+    }
+
+    public enum IndentationCharacter {
+        SPACE(" "),
+        TAB("\t"),
+        PERIOD("."),
+        HYPHEN("-"),
+        UNDERSCORE("_"),
+        BULLET("\u2022");
+
+        String indentCharacter;
+
+        IndentationCharacter(String indentCharacter) {
+            this.indentCharacter = indentCharacter;
+        }
+    }
+}
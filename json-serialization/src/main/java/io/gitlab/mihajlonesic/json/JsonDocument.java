@@ -0,0 +1,197 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.Arrays;
+
+/**
+ * A JSON document that is read only where it is accessed.
+ *
+ * Parsing scans the input once and records where its structural characters are, the braces, brackets, colons
+ * and commas outside of strings, together with where each object or array ends. Looking up a key then walks
+ * only the members of the objects on the path, stepping over nested values in one jump,
+ * and nothing is decoded until a {@link JsonValue} is asked for its value.
+ *
+ * <pre>
+ * String city = JsonDocument.parse(json).get("address", "city").asString();
+ * </pre>
+ *
+ * Brackets are checked to match while indexing, everything else when it is read.
+ */
+public final class JsonDocument {
+
+    private final char[] chars;
+    private final byte[] bytes;
+    // reads characters of the whole document and compares keys
+    final JsonReader source;
+    private final int length;
+
+    /**
+     * The offsets of the structural characters, in order.
+     */
+    final int[] structurals;
+    /**
+     * For an opening brace or bracket, the index in {@link #structurals} of the one closing it.
+     */
+    final int[] closings;
+    final int count;
+
+    private final JsonValue root;
+
+    private JsonDocument(char[] chars, byte[] bytes, int length) {
+        this.chars = chars;
+        this.bytes = bytes;
+        this.length = length;
+        this.source = reader(0, length);
+
+        int[] structurals = new int[Math.max(16, length >> 3)];
+        int[] closings = new int[structurals.length];
+        int[] open = new int[16];
+        int depth = 0;
+        int count = 0;
+        boolean inString = false;
+        for (int i = 0; i < length; i++) {
+            int c = source.at(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                }
+                else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (c == '"') {
+                inString = true;
+                continue;
+            }
+            if (c != '{' && c != '}' && c != '[' && c != ']' && c != ':' && c != ',') {
+                continue;
+            }
+
+            if (count == structurals.length) {
+                structurals = Arrays.copyOf(structurals, count << 1);
+                closings = Arrays.copyOf(closings, count << 1);
+            }
+            structurals[count] = i;
+            if (c == '{' || c == '[') {
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth << 1);
+                }
+                open[depth++] = count;
+            }
+            else if (c == '}' || c == ']') {
+                if (depth == 0 || source.at(structurals[open[depth - 1]]) != (c == '}' ? '{' : '[')) {
+                    throw error("unexpected '" + (char) c + "'", i);
+                }
+                closings[open[--depth]] = count;
+            }
+            else if (depth == 0) {
+                throw error("unexpected '" + (char) c + "'", i);
+            }
+            count++;
+        }
+        if (inString) {
+            throw error("unterminated string", length);
+        }
+        if (depth > 0) {
+            throw error("unclosed '" + (char) source.at(structurals[open[depth - 1]]) + "'", length);
+        }
+
+        this.structurals = structurals;
+        this.closings = closings;
+        this.count = count;
+        this.root = rootValue();
+    }
+
+    /**
+     * Indexes the document; its values are read only when they are accessed.
+     */
+    public static JsonDocument parse(String json) throws JsonSerializationException {
+        return new JsonDocument(json.toCharArray(), null, json.length());
+    }
+
+    /**
+     * Indexes a document encoded in UTF-8, which is not decoded until its values are accessed.
+     * The array is used as it is, so it must not be changed while the document is in use.
+     */
+    public static JsonDocument parse(byte[] json) throws JsonSerializationException {
+        return new JsonDocument(null, json, json.length);
+    }
+
+    public JsonValue getRoot() {
+        return root;
+    }
+
+    /**
+     * @param keys the keys of the nested objects, e.g. {@code "address", "city"}
+     * @return the value, {@code null} if it is missing or something on the way is not an object
+     */
+    public JsonValue get(String... keys) {
+        return root.get(keys);
+    }
+
+    JsonReader reader(int start, int end) {
+        return chars != null ? new CharJsonReader(chars, start, end) : new Utf8JsonReader(bytes, start, end);
+    }
+
+    /**
+     * @return the offset of the first character that is not whitespace, at or after the offset
+     */
+    int skipWhitespace(int offset) {
+        while (offset < length && isWhitespace(source.at(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * @return the offset after the last character that is not whitespace, before the offset
+     */
+    int trimWhitespace(int end) {
+        while (end > 0 && isWhitespace(source.at(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * The value between two offsets, e.g. between a colon and the comma after it.
+     *
+     * @param structural the index of the first structural character after the start, which is where
+     *                   the value is if it is an object or an array
+     */
+    JsonValue value(int start, int end, int structural) {
+        start = skipWhitespace(start);
+        end = trimWhitespace(end);
+        if (start >= end) {
+            throw error("expected a value", start);
+        }
+        int c = source.at(start);
+        if ((c == '{' || c == '[') && structural < count && structurals[structural] == start) {
+            int after = structurals[closings[structural]] + 1;
+            if (after != end) {
+                after = skipWhitespace(after);
+                throw error("unexpected '" + (char) source.at(after) + "'", after);
+            }
+            return new JsonValue(this, start, end, structural);
+        }
+        if (c == '{' || c == '[' || c == '}' || c == ']' || c == ':' || c == ',') {
+            throw error("expected a value but found '" + (char) c + "'", start);
+        }
+        return new JsonValue(this, start, end, -1);
+    }
+
+    private JsonValue rootValue() {
+        if (count > 0 && structurals[0] != skipWhitespace(0)) {
+            throw error("expected the end of the document", structurals[0]);
+        }
+        return value(0, length, 0);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    static JsonSerializationException error(String message, int position) {
+        return new JsonSerializationException("Can't read JSON: " + message + " at position " + position);
+    }
+}
@@ -0,0 +1,15 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an enum whose constants are written and read as their {@link Enum#name()} instead of their {@code toString()}.
+ * Either is taken once per constant, so it must not change afterwards.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonEnumNames {
+}
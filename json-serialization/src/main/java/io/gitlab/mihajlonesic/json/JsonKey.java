@@ -0,0 +1,41 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A property key encoded once per class, as {@code ,"key":} in both characters and UTF-8 bytes,
+ * escaped, so writing it is a single array copy. The leading comma is skipped for the first property.
+ */
+final class JsonKey {
+
+    // the keys of a map with enum keys, by ordinal
+    private static final ClassValue<JsonKey[]> ENUM_KEYS = new ClassValue<JsonKey[]>() {
+        @Override
+        protected JsonKey[] computeValue(Class<?> type) {
+            String[] names = ClassMetadata.of(type).constantNames;
+            JsonKey[] keys = new JsonKey[names.length];
+            for (int i = 0; i < names.length; i++) {
+                keys[i] = new JsonKey(names[i]);
+            }
+            return keys;
+        }
+    };
+
+    final String name;
+    final char[] chars;
+    final byte[] utf8;
+
+    JsonKey(String name) {
+        String token = ",\"" + JsonWriter.escape(name) + "\":";
+        this.name = name;
+        this.chars = token.toCharArray();
+        this.utf8 = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the key of the constant as a map key, the name it is written as, see {@link JsonEnumNames}
+     */
+    static JsonKey of(Enum<?> constant) {
+        return ENUM_KEYS.get(constant.getDeclaringClass())[constant.ordinal()];
+    }
+}
@@ -0,0 +1,34 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.function.Function;
+
+/**
+ * A {@link JsonElement} field as seen by a {@link GeneratedJsonSerializer}: its key, whether it is required,
+ * its declared type and a getter that reads the value without reflection.
+ *
+ * @param <T> the class declaring the field
+ */
+public final class JsonProperty<T> {
+
+    final String key;
+    final boolean required;
+    final Class<?> type;
+    final Function<? super T, ?> getter;
+
+    private JsonProperty(String key, boolean required, Class<?> type, Function<? super T, ?> getter) {
+        this.key = key;
+        this.required = required;
+        this.type = type;
+        this.getter = getter;
+    }
+
+    /**
+     * @param key the JSON key, {@link JsonElement#key()} or the field name
+     * @param required {@link JsonElement#required()}
+     * @param type the declared (erased) type of the field
+     * @param getter reads the field value
+     */
+    public static <T> JsonProperty<T> of(String key, boolean required, Class<?> type, Function<? super T, ?> getter) {
+        return new JsonProperty<>(key, required, type, getter);
+    }
+}
@@ -0,0 +1,571 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.math.BigInteger;
+
+/**
+ * Reads JSON straight out of a buffer holding the whole document, one value at a time,
+ * without building tokens first. Structure, numbers and literals are ASCII and are parsed here
+ * the same for characters and UTF-8 bytes; a subclass only decodes strings and compares keys.
+ *
+ * Strings without escapes become a String in a single copy, keys are compared in place against the
+ * pre-encoded {@link JsonKey} of each property and numbers are parsed from their digits,
+ * so reading an object allocates little more than its field values.
+ *
+ * Besides standard JSON, {@code NaN} and {@code Infinity} are read as numbers, the same as they are written.
+ *
+ * {@link CharJsonReader} reads characters, {@link Utf8JsonReader} reads UTF-8 bytes.
+ */
+abstract class JsonReader {
+
+    // 10^0 to 10^22 are exact doubles, 10^0 to 10^10 exact floats
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    // the largest number of digits kept in a long mantissa
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private final int limit;
+    private int position;
+
+    // the number scanned last, see scanNumber()
+    private long mantissa;
+    private int exponent;
+    private boolean negative;
+    private boolean truncated;
+
+    /**
+     * Reads the document, or a single value of it, between the indexes.
+     */
+    JsonReader(int start, int end) {
+        this.position = start;
+        this.limit = end;
+    }
+
+    /**
+     * @return the character, or the unsigned byte, at the index
+     */
+    abstract int at(int index);
+
+    /**
+     * @return the text between the indexes, which holds no escapes
+     */
+    abstract String text(int start, int end);
+
+    /**
+     * Appends the text between the indexes, which holds no escapes.
+     */
+    abstract void appendText(StringBuilder builder, int start, int end);
+
+    /**
+     * @return whether the text between the indexes, which holds no escapes, is the name of the key
+     */
+    abstract boolean isKey(int start, int end, JsonKey key);
+
+    /**
+     * @return the next character after whitespace, which is not consumed, or -1 at the end of the document
+     */
+    int peek() {
+        while (position < limit) {
+            int c = at(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    void expect(char c) {
+        if (peek() != c) {
+            throw unexpected("'" + c + "'");
+        }
+        position++;
+    }
+
+    void expectEnd() {
+        if (peek() != -1) {
+            throw unexpected("the end of the document");
+        }
+    }
+
+    /**
+     * @return whether the next value is {@code null}, which is then consumed
+     */
+    boolean readNull() {
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    boolean readBoolean() {
+        int c = peek();
+        if (c == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        if (c == 'f') {
+            expectLiteral("false");
+            return false;
+        }
+        throw unexpected("a boolean");
+    }
+
+    /**
+     * Consumes an opening brace or bracket.
+     */
+    void beginObject() {
+        expect('{');
+    }
+
+    void beginArray() {
+        expect('[');
+    }
+
+    /**
+     * Consumes the comma before the next property, or the closing brace.
+     *
+     * @return whether there is another property
+     */
+    boolean hasNextProperty(boolean first) {
+        return hasNext('}', first);
+    }
+
+    /**
+     * Consumes the comma before the next item, or the closing bracket.
+     *
+     * @return whether there is another item
+     */
+    boolean hasNextItem(boolean first) {
+        return hasNext(']', first);
+    }
+
+    private boolean hasNext(char end, boolean first) {
+        if (peek() == end) {
+            position++;
+            return false;
+        }
+        if (!first) {
+            expect(',');
+        }
+        return true;
+    }
+
+    /**
+     * Reads a key and the colon after it. Properties usually come in the order they are written,
+     * so the one at the hint is tried first.
+     *
+     * @return the index of the property with that key, or -1 if there is none
+     */
+    int readKey(PropertyMetadata[] properties, int hint) {
+        expect('"');
+        int start = position;
+        int end = findQuote(start);
+        int index;
+        if (end >= 0) {
+            position = end + 1;
+            index = hint < properties.length && isKey(start, end, properties[hint].token) ? hint : -1;
+            for (int i = 0; index < 0 && i < properties.length; i++) {
+                if (isKey(start, end, properties[i].token)) {
+                    index = i;
+                }
+            }
+        }
+        else {
+            position = start - 1;
+            String key = readString();
+            index = -1;
+            for (int i = 0; index < 0 && i < properties.length; i++) {
+                if (properties[i].key.equals(key)) {
+                    index = i;
+                }
+            }
+        }
+        expect(':');
+        return index;
+    }
+
+    /**
+     * Reads a key of a map and the colon after it.
+     */
+    String readKey() {
+        String key = readString();
+        expect(':');
+        return key;
+    }
+
+    String readString() {
+        expect('"');
+        int start = position;
+        int end = findQuote(start);
+        if (end >= 0) {
+            position = end + 1;
+            return text(start, end);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int runStart = start;
+        int index = start;
+        while (true) {
+            if (index >= limit) {
+                position = index;
+                throw error("unterminated string");
+            }
+            int c = at(index);
+            if (c == '"') {
+                appendText(builder, runStart, index);
+                position = index + 1;
+                return builder.toString();
+            }
+            if (c == '\\') {
+                appendText(builder, runStart, index);
+                index = readEscape(builder, index + 1);
+                runStart = index;
+            }
+            else {
+                index++;
+            }
+        }
+    }
+
+    char readChar() {
+        peek();
+        int start = position;
+        String value = readString();
+        if (value.length() != 1) {
+            position = start;
+            throw error("expected a single character but found \"" + value + "\"");
+        }
+        return value.charAt(0);
+    }
+
+    long readLong() {
+        int c = peek();
+        int start = position;
+        boolean negative = c == '-';
+        if (negative) {
+            position++;
+        }
+        // accumulated as a negative number, so Long.MIN_VALUE fits
+        long value = 0;
+        int digits = 0;
+        while (position < limit && (c = at(position)) >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                position = start;
+                throw error("the number doesn't fit in a long");
+            }
+            value = value * 10 - digit;
+            position++;
+            digits++;
+        }
+        if (digits == 0) {
+            position = start;
+            throw unexpected("a number");
+        }
+        if (position < limit && (c == '.' || c == 'e' || c == 'E')) {
+            position = start;
+            throw error("expected a whole number");
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                position = start;
+                throw error("the number doesn't fit in a long");
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    int readInt() {
+        return (int) readLong(Integer.MIN_VALUE, Integer.MAX_VALUE, "an int");
+    }
+
+    short readShort() {
+        return (short) readLong(Short.MIN_VALUE, Short.MAX_VALUE, "a short");
+    }
+
+    byte readByte() {
+        return (byte) readLong(Byte.MIN_VALUE, Byte.MAX_VALUE, "a byte");
+    }
+
+    private long readLong(long min, long max, String type) {
+        peek();
+        int start = position;
+        long value = readLong();
+        if (value < min || value > max) {
+            position = start;
+            throw error("the number doesn't fit in " + type);
+        }
+        return value;
+    }
+
+    double readDouble() {
+        int start = scanNumber();
+        if (start < 0) {
+            return readSpecialNumber();
+        }
+        if (!truncated && mantissa <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+            // both operands are exact, so the one rounding is the correct one
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text(start, position));
+    }
+
+    float readFloat() {
+        int start = scanNumber();
+        if (start < 0) {
+            return (float) readSpecialNumber();
+        }
+        if (!truncated && mantissa <= 1L << 24 && exponent >= -10 && exponent <= 10) {
+            float value = exponent >= 0 ? mantissa * FLOAT_POWERS_OF_TEN[exponent] : mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Float.parseFloat(text(start, position));
+    }
+
+    /**
+     * Reads a number of an unknown type, as it is written: a whole number as a {@link Long},
+     * or a {@link BigInteger} if it doesn't fit in one, and any other number as a {@link Double}.
+     */
+    Number readNumber() {
+        peek();
+        int start = position;
+        int digitsStart = start < limit && at(start) == '-' ? start + 1 : start;
+        int end = digitsStart;
+        while (end < limit && at(end) >= '0' && at(end) <= '9') {
+            end++;
+        }
+        if (end == digitsStart || end < limit && (at(end) == '.' || at(end) == 'e' || at(end) == 'E')) {
+            return readDouble();
+        }
+        // up to 18 digits always fit in a long
+        if (end - digitsStart <= MAX_MANTISSA_DIGITS) {
+            return readLong();
+        }
+        BigInteger value = new BigInteger(text(start, end));
+        position = end;
+        return value.bitLength() < Long.SIZE ? (Number) value.longValue() : value;
+    }
+
+    /**
+     * Scans a number into {@link #mantissa} and {@link #exponent}, as long as its digits fit in a long.
+     *
+     * @return where the number starts, or -1 if it is not made of digits, e.g. {@code NaN}
+     */
+    private int scanNumber() {
+        int c = peek();
+        int start = position;
+        negative = c == '-';
+        if (negative) {
+            position++;
+        }
+        if (position < limit && (at(position) == 'N' || at(position) == 'I')) {
+            return -1;
+        }
+
+        mantissa = 0;
+        exponent = 0;
+        truncated = false;
+        int digits = 0;
+        int significantDigits = 0;
+        boolean fraction = false;
+        while (position < limit) {
+            c = at(position);
+            if (c >= '0' && c <= '9') {
+                if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa > 0) {
+                        significantDigits++;
+                    }
+                    if (fraction) {
+                        exponent--;
+                    }
+                }
+                else {
+                    truncated = true;
+                }
+                digits++;
+            }
+            else if (c == '.' && !fraction) {
+                fraction = true;
+            }
+            else {
+                break;
+            }
+            position++;
+        }
+        if (digits == 0) {
+            position = start;
+            throw unexpected("a number");
+        }
+
+        if (position < limit && (c == 'e' || c == 'E')) {
+            position++;
+            boolean negativeExponent = position < limit && at(position) == '-';
+            if (position < limit && (at(position) == '-' || at(position) == '+')) {
+                position++;
+            }
+            int exponentStart = position;
+            int value = 0;
+            while (position < limit && (c = at(position)) >= '0' && c <= '9') {
+                // anything this big is out of range anyway, and is left to Double.parseDouble
+                value = Math.min(value * 10 + (c - '0'), 10000);
+                position++;
+            }
+            if (position == exponentStart) {
+                throw unexpected("the digits of the exponent");
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        return start;
+    }
+
+    private double readSpecialNumber() {
+        if (at(position) == 'N') {
+            expectLiteral("NaN");
+            return Double.NaN;
+        }
+        expectLiteral("Infinity");
+        return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Skips a value of any kind, nested objects and arrays included.
+     */
+    void skipValue() {
+        int depth = 0;
+        do {
+            int c = peek();
+            if (c == '{' || c == '[') {
+                depth++;
+                position++;
+            }
+            else if (depth > 0 && (c == '}' || c == ']')) {
+                depth--;
+                position++;
+            }
+            else if (depth > 0 && (c == ',' || c == ':')) {
+                position++;
+            }
+            else if (c == '"') {
+                skipString();
+            }
+            else {
+                skipScalar();
+            }
+        } while (depth > 0);
+    }
+
+    private void skipString() {
+        int index = position + 1;
+        while (index < limit) {
+            int c = at(index);
+            if (c == '"') {
+                position = index + 1;
+                return;
+            }
+            index += c == '\\' ? 2 : 1;
+        }
+        throw error("unterminated string");
+    }
+
+    private void skipScalar() {
+        int start = position;
+        while (position < limit) {
+            int c = at(position);
+            if (c == ',' || c == ':' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t'
+                || c == '{' || c == '[' || c == '"') {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw unexpected("a value");
+        }
+    }
+
+    /**
+     * @return the index of the closing quote, or -1 if the string has an escape before it
+     */
+    private int findQuote(int start) {
+        for (int index = start; index < limit; index++) {
+            int c = at(index);
+            if (c == '"') {
+                return index;
+            }
+            if (c == '\\') {
+                return -1;
+            }
+        }
+        position = limit;
+        throw error("unterminated string");
+    }
+
+    /**
+     * @return the index after the escape sequence
+     */
+    private int readEscape(StringBuilder builder, int index) {
+        int c = index < limit ? at(index) : -1;
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                builder.append((char) c);
+                return index + 1;
+            case 'b':
+                builder.append('\b');
+                return index + 1;
+            case 'f':
+                builder.append('\f');
+                return index + 1;
+            case 'n':
+                builder.append('\n');
+                return index + 1;
+            case 'r':
+                builder.append('\r');
+                return index + 1;
+            case 't':
+                builder.append('\t');
+                return index + 1;
+            case 'u':
+                int value = 0;
+                for (int i = index + 1; i < index + 5; i++) {
+                    int digit = i < limit ? Character.digit(at(i), 16) : -1;
+                    if (digit < 0) {
+                        position = index - 1;
+                        throw error("invalid unicode escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                builder.append((char) value);
+                return index + 5;
+            default:
+                position = index - 1;
+                throw error("invalid escape");
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (position + i >= limit || at(position + i) != literal.charAt(i)) {
+                throw unexpected(literal);
+            }
+        }
+        position += literal.length();
+    }
+
+    JsonSerializationException error(String message) {
+        return new JsonSerializationException("Can't read JSON: " + message + " at position " + position);
+    }
+
+    private JsonSerializationException unexpected(String expected) {
+        String found = position < limit ? "'" + (char) at(position) + "'" : "the end";
+        return error("expected " + expected + " but found " + found);
+    }
+}
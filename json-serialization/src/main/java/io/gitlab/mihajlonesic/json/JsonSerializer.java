@@ -0,0 +1,64 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Writes instances of one {@link JsonSerializable} class, returned by {@link JsonConverter#compile(Class)}
+ * once the class and the classes it holds have been checked and their serializers generated.
+ * Serializers are immutable and can be shared between threads.
+ *
+ * <pre>
+ * private static final JsonSerializer&lt;Person&gt; PERSON = JsonConverter.compile(Person.class);
+ *
+ * String json = PERSON.toJson(person);
+ * </pre>
+ *
+ * @param <T> the serialized class
+ */
+public final class JsonSerializer<T> {
+
+    private final Class<T> type;
+    private final JsonConfig config;
+
+    JsonSerializer(Class<T> type, JsonConfig config) {
+        this.type = type;
+        this.config = config;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public JsonConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return a serializer of the same class writing with other options
+     */
+    public JsonSerializer<T> withConfig(JsonConfig config) {
+        return new JsonSerializer<>(type, Objects.requireNonNull(config, "config"));
+    }
+
+    public String toJson(T value) throws JsonSerializationException {
+        return JsonConverter.convertToJson(value, config);
+    }
+
+    public byte[] toJsonBytes(T value) throws JsonSerializationException {
+        return JsonConverter.convertToJsonBytes(value, config);
+    }
+
+    public void write(T value, Appendable target) throws JsonSerializationException {
+        JsonConverter.convertToJson(value, target, config);
+    }
+
+    public void write(T value, OutputStream outputStream) throws JsonSerializationException {
+        JsonConverter.convertToJson(value, outputStream, config);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonSerializer[" + type.getName() + "]";
+    }
+}
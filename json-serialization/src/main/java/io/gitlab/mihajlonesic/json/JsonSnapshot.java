@@ -0,0 +1,340 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The state of a {@link JsonSerializable} object as it was last written, to send only what changed since then
+ * as a JSON Merge Patch (RFC 7396).
+ *
+ * <pre>
+ * JsonSnapshot snapshot = JsonSnapshot.of(person);
+ * ...
+ * String patch = snapshot.update(person); // e.g. {"personAge":35,"address":{"city":"Košice"}}
+ * </pre>
+ *
+ * A snapshot keeps the value of every property: strings, numbers, booleans and enums as they are,
+ * nested {@link JsonSerializable} objects as snapshots of their own, and arrays, collections and maps as their JSON.
+ * A patch goes into every object that is an object on both sides, maps included, member by member, even when its class
+ * changed or it is nested too deep to be snapshot on its own, as a merge patch merges objects instead of replacing them;
+ * members that are gone are removed with {@code null}. Arrays and collections are replaced whole.
+ * A property left out of the JSON is removed with {@code null}; a merge patch can't set a value to
+ * {@code null}, so a required property that becomes {@code null} is removed as well.
+ */
+public final class JsonSnapshot {
+
+    // nested objects deeper than this are kept as their JSON, so a long chain doesn't need a deep call stack
+    private static final int MAX_NESTED_SNAPSHOTS = 64;
+
+    // a property left out of the JSON
+    private static final Object ABSENT = new Object();
+
+    private final int maxDepth;
+    private Node root;
+
+    private JsonSnapshot(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Takes a snapshot of the object. {@link JsonInit} methods are called, the same as when it is written.
+     */
+    public static JsonSnapshot of(Object object) throws JsonSerializationException {
+        return of(object, JsonConfig.DEFAULT);
+    }
+
+    /**
+     * Takes a snapshot of an object nested up to {@link JsonConfig#getMaxDepth()} deep; the other options don't apply to patches.
+     */
+    public static JsonSnapshot of(Object object, JsonConfig config) throws JsonSerializationException {
+        JsonSnapshot snapshot = new JsonSnapshot(config.getMaxDepth());
+        snapshot.root = snapshot.root(object);
+        return snapshot;
+    }
+
+    /**
+     * @return the merge patch that turns the JSON of the snapshot into the JSON of the object, {@code {}} if they are the same
+     */
+    public String mergePatch(Object current) throws JsonSerializationException {
+        return patch(root, root(current));
+    }
+
+    /**
+     * The same as {@link #mergePatch(Object)}, and the snapshot becomes one of the object.
+     * A snapshot being updated must not be used from other threads.
+     */
+    public String update(Object current) throws JsonSerializationException {
+        Node next = root(current);
+        String patch = patch(root, next);
+        root = next;
+        return patch;
+    }
+
+    private Node root(Object object) {
+        Objects.requireNonNull(object, "object");
+        ClassMetadata metadata = ClassMetadata.of(object.getClass());
+        if (metadata.category != TypeCategory.OBJECT) {
+            throw new JsonSerializationException("The class " + object.getClass().getSimpleName() + " is not annotated with JsonSerializable");
+        }
+        if (root != null && root.metadata != metadata) {
+            throw new JsonSerializationException("Can't patch a " + root.metadata.type.getSimpleName()
+                    + " into a " + object.getClass().getSimpleName());
+        }
+        return snapshot(object, metadata, 1);
+    }
+
+    private Node snapshot(Object object, ClassMetadata metadata, int depth) {
+        if (depth > maxDepth) {
+            throw new JsonSerializationException("Can't serialize more than " + maxDepth + " nested objects and arrays");
+        }
+        GraphWriter.initialize(object, metadata);
+        PropertyMetadata[] properties = metadata.properties;
+        Object[] values = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            PropertyMetadata property = properties[i];
+            Object value = property.get(object);
+            values[i] = GraphWriter.isSkipped(property, value) ? ABSENT : snapshotValue(value, depth);
+        }
+        return new Node(metadata, values);
+    }
+
+    /**
+     * @param depth how deep the object holding the value is
+     */
+    private Object snapshotValue(Object value, int depth) {
+        if (value == null) {
+            return null;
+        }
+        ClassMetadata metadata = ClassMetadata.of(value.getClass());
+        switch (metadata.category) {
+            case NUMBER:
+            case BOOLEAN:
+            case CHARACTER:
+            case STRING:
+            case ENUM:
+                return value;
+            case OBJECT:
+                if (depth < MAX_NESTED_SNAPSHOTS) {
+                    return snapshot(value, metadata, depth + 1);
+                }
+                return new Json(value, maxDepth, depth, true);
+            case MAP:
+                return new Json(value, maxDepth, depth, true);
+            default:
+                return new Json(value, maxDepth, depth, false);
+        }
+    }
+
+    /**
+     * Writes the patch on a stack of objects of its own, as objects nested too deep for snapshots are patched as well.
+     * An object is written into before it is known whether anything in it changed; if nothing did, it is taken back.
+     */
+    private static String patch(Node previous, Node current) {
+        CharJsonWriter writer = new CharJsonWriter();
+        try {
+            Deque<Members> objects = new ArrayDeque<>();
+            objects.push(new Members(previous, current, 0));
+            writer.beginObject();
+            while (!objects.isEmpty()) {
+                Members members = objects.peek();
+                if (members.position == members.keys.size()) {
+                    objects.pop();
+                    if (members.written || objects.isEmpty()) {
+                        writer.endObject();
+                        if (!objects.isEmpty()) {
+                            objects.peek().written = true;
+                        }
+                    }
+                    else {
+                        writer.truncate(members.start);
+                    }
+                    continue;
+                }
+
+                int i = members.position++;
+                Object before = members.before.get(i);
+                Object after = members.after.get(i);
+                if (before instanceof Json && after instanceof Json && same(before, after)) {
+                    continue;
+                }
+                if (isObject(before) && isObject(after)) {
+                    int start = writer.length();
+                    writeKey(writer, members, i);
+                    writer.beginObject();
+                    objects.push(new Members(before, after, start));
+                }
+                else if (!same(before, after)) {
+                    writeKey(writer, members, i);
+                    writeValue(after, writer);
+                    members.written = true;
+                }
+            }
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static void writeKey(JsonWriter writer, Members members, int i) {
+        if (members.written) {
+            writer.writeComma();
+        }
+        writer.writeKey(members.keys.get(i));
+    }
+
+    private static boolean isObject(Object value) {
+        return value instanceof Node
+                || value instanceof Json && ((Json) value).object
+                || value instanceof JsonValue && ((JsonValue) value).isObject();
+    }
+
+    /**
+     * Compares two values by their JSON. A snapshot of an object is never the same as anything,
+     * it is patched member by member instead.
+     */
+    private static boolean same(Object before, Object after) {
+        if (before instanceof Node || after instanceof Node) {
+            return false;
+        }
+        if (before instanceof Json || before instanceof JsonValue) {
+            return (after instanceof Json || after instanceof JsonValue) && before.toString().equals(after.toString());
+        }
+        return Objects.equals(before, after);
+    }
+
+    /**
+     * Writes a value added or replaced by the patch whole.
+     */
+    private static void writeValue(Object value, JsonWriter writer) {
+        if (value == ABSENT || value == null) {
+            writer.writeNull();
+        }
+        else if (value instanceof Json || value instanceof JsonValue) {
+            writer.write(value.toString());
+        }
+        else if (value instanceof Node) {
+            Node node = (Node) value;
+            PropertyMetadata[] properties = node.metadata.properties;
+            writer.beginObject();
+            boolean first = true;
+            for (int i = 0; i < properties.length; i++) {
+                if (node.values[i] != ABSENT) {
+                    writer.writeKey(properties[i].token, first);
+                    first = false;
+                    writeValue(node.values[i], writer);
+                }
+            }
+            writer.endObject();
+        }
+        else {
+            GraphWriter.write(value, writer, JsonConfig.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    /**
+     * The values of the properties of an object, {@link #ABSENT} for the ones left out of its JSON.
+     */
+    private static final class Node {
+
+        final ClassMetadata metadata;
+        final Object[] values;
+
+        Node(ClassMetadata metadata, Object[] values) {
+            this.metadata = metadata;
+            this.values = values;
+        }
+    }
+
+    /**
+     * The JSON of a value that is compared whole, and replaced whole unless it is an object.
+     */
+    private static final class Json {
+
+        final String json;
+        final boolean object;
+
+        Json(Object value, int maxDepth, int enclosing, boolean object) {
+            CharJsonWriter writer = new CharJsonWriter();
+            try {
+                GraphWriter.write(value, writer, maxDepth, enclosing);
+                this.json = writer.toString();
+            } finally {
+                writer.release();
+            }
+            this.object = object;
+        }
+
+        @Override
+        public String toString() {
+            return json;
+        }
+    }
+
+    /**
+     * The members of an object on both sides of the patch, by key, {@link #ABSENT} where one side doesn't have it.
+     * Values are snapshot values, or {@link JsonValue}s of an object held as its JSON.
+     */
+    private static final class Members {
+
+        final List<String> keys = new ArrayList<>();
+        final List<Object> before = new ArrayList<>();
+        final List<Object> after = new ArrayList<>();
+        // where the key of the object starts in the patch, to take it back if nothing in it changed
+        final int start;
+        int position;
+        boolean written;
+
+        Members(Object previous, Object current, int start) {
+            this.start = start;
+            if (previous instanceof Node && current instanceof Node && ((Node) previous).metadata == ((Node) current).metadata) {
+                Node before = (Node) previous;
+                Node after = (Node) current;
+                PropertyMetadata[] properties = after.metadata.properties;
+                for (int i = 0; i < properties.length; i++) {
+                    if (before.values[i] != ABSENT || after.values[i] != ABSENT) {
+                        add(properties[i].key, before.values[i], after.values[i]);
+                    }
+                }
+                return;
+            }
+
+            Map<String, Object> before = members(previous);
+            Map<String, Object> after = members(current);
+            for (Map.Entry<String, Object> member : after.entrySet()) {
+                Object value = before.containsKey(member.getKey()) ? before.remove(member.getKey()) : ABSENT;
+                add(member.getKey(), value, member.getValue());
+            }
+            for (Map.Entry<String, Object> member : before.entrySet()) {
+                add(member.getKey(), member.getValue(), ABSENT);
+            }
+        }
+
+        private void add(String key, Object previous, Object current) {
+            keys.add(key);
+            before.add(previous);
+            after.add(current);
+        }
+
+        private static Map<String, Object> members(Object object) {
+            Map<String, Object> members = new LinkedHashMap<>();
+            if (object instanceof Node) {
+                Node node = (Node) object;
+                PropertyMetadata[] properties = node.metadata.properties;
+                for (int i = 0; i < properties.length; i++) {
+                    if (node.values[i] != ABSENT) {
+                        members.put(properties[i].key, node.values[i]);
+                    }
+                }
+                return members;
+            }
+            JsonValue value = object instanceof Json ? JsonDocument.parse(((Json) object).json).getRoot() : (JsonValue) object;
+            members.putAll(value.members());
+            return members;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A value of a {@link JsonDocument}, located but not read yet.
+ * Looking into an object or an array only walks its own members, and a value is decoded when one of the
+ * {@code as...} methods is called, each time it is called.
+ */
+public final class JsonValue {
+
+    private final JsonDocument document;
+    private final int start;
+    private final int end;
+    // the index of the opening brace or bracket among the structural characters, -1 for other values
+    private final int structural;
+
+    JsonValue(JsonDocument document, int start, int end, int structural) {
+        this.document = document;
+        this.start = start;
+        this.end = end;
+        this.structural = structural;
+    }
+
+    public boolean isObject() {
+        return structural >= 0 && document.source.at(start) == '{';
+    }
+
+    public boolean isArray() {
+        return structural >= 0 && document.source.at(start) == '[';
+    }
+
+    public boolean isString() {
+        return document.source.at(start) == '"';
+    }
+
+    public boolean isNull() {
+        return document.source.at(start) == 'n';
+    }
+
+    /**
+     * @param keys the keys of the nested objects, e.g. {@code "address", "city"}
+     * @return the value, {@code null} if it is missing or something on the way is not an object
+     */
+    public JsonValue get(String... keys) {
+        JsonValue value = this;
+        for (String key : keys) {
+            value = value.member(key);
+            if (value == null) {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the item at the index, {@code null} if there is none or this is not an array
+     */
+    public JsonValue get(int index) {
+        if (!isArray() || index < 0 || isEmpty()) {
+            return null;
+        }
+        int closing = document.closings[structural];
+        int comma = structural;
+        for (int i = 0; ; i++) {
+            int after = next(comma, closing);
+            if (i == index) {
+                return document.value(document.structurals[comma] + 1, document.structurals[after], comma + 1);
+            }
+            if (after == closing) {
+                return null;
+            }
+            comma = after;
+        }
+    }
+
+    /**
+     * @return the number of items of an array or members of an object, 0 for any other value
+     */
+    public int size() {
+        if (structural < 0 || isEmpty()) {
+            return 0;
+        }
+        boolean object = isObject();
+        int closing = document.closings[structural];
+        int size = 0;
+        for (int comma = structural; comma != closing; size++) {
+            comma = next(object ? colon(comma, closing) : comma, closing);
+        }
+        return size;
+    }
+
+    /**
+     * @return the keys of an object in the order they are written, none for any other value
+     */
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        if (!isObject() || isEmpty()) {
+            return keys;
+        }
+        int closing = document.closings[structural];
+        for (int comma = structural; comma != closing; ) {
+            int colon = colon(comma, closing);
+            keys.add(document.reader(document.structurals[comma] + 1, document.structurals[colon]).readString());
+            comma = next(colon, closing);
+        }
+        return keys;
+    }
+
+    /**
+     * @return the string, {@code null} if the value is {@code null}
+     */
+    public String asString() throws JsonSerializationException {
+        return as(String.class);
+    }
+
+    public long asLong() throws JsonSerializationException {
+        JsonReader reader = reader();
+        long value = reader.readLong();
+        reader.expectEnd();
+        return value;
+    }
+
+    public int asInt() throws JsonSerializationException {
+        JsonReader reader = reader();
+        int value = reader.readInt();
+        reader.expectEnd();
+        return value;
+    }
+
+    public double asDouble() throws JsonSerializationException {
+        JsonReader reader = reader();
+        double value = reader.readDouble();
+        reader.expectEnd();
+        return value;
+    }
+
+    public boolean asBoolean() throws JsonSerializationException {
+        JsonReader reader = reader();
+        boolean value = reader.readBoolean();
+        reader.expectEnd();
+        return value;
+    }
+
+    /**
+     * Reads the value, and only this value, the same as {@link JsonConverter#fromJson(String, Class)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T as(Class<T> type) throws JsonSerializationException {
+        return (T) JsonBinder.read(reader(), type, JsonConfig.DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @return the JSON text of the value, as it is in the document
+     */
+    @Override
+    public String toString() {
+        return document.source.text(start, end);
+    }
+
+    /**
+     * @return the members of an object by key, in the order they are written, none for any other value
+     */
+    Map<String, JsonValue> members() {
+        Map<String, JsonValue> members = new LinkedHashMap<>();
+        if (!isObject() || isEmpty()) {
+            return members;
+        }
+        int closing = document.closings[structural];
+        for (int comma = structural; comma != closing; ) {
+            int colon = colon(comma, closing);
+            int after = next(colon, closing);
+            String key = document.reader(document.structurals[comma] + 1, document.structurals[colon]).readString();
+            members.put(key, document.value(document.structurals[colon] + 1, document.structurals[after], colon + 1));
+            comma = after;
+        }
+        return members;
+    }
+
+    private JsonReader reader() {
+        return document.reader(start, end);
+    }
+
+    private boolean isEmpty() {
+        int closing = document.closings[structural];
+        return closing == structural + 1 && document.skipWhitespace(start + 1) == document.structurals[closing];
+    }
+
+    private JsonValue member(String key) {
+        if (!isObject() || isEmpty()) {
+            return null;
+        }
+        JsonKey token = null;
+        int closing = document.closings[structural];
+        for (int comma = structural; comma != closing; ) {
+            int colon = colon(comma, closing);
+            int after = next(colon, closing);
+            int keyStart = document.skipWhitespace(document.structurals[comma] + 1);
+            int keyEnd = document.trimWhitespace(document.structurals[colon]);
+            if (token == null) {
+                token = new JsonKey(key);
+            }
+            if (isKey(keyStart, keyEnd, token)) {
+                return document.value(document.structurals[colon] + 1, document.structurals[after], colon + 1);
+            }
+            comma = after;
+        }
+        return null;
+    }
+
+    private boolean isKey(int keyStart, int keyEnd, JsonKey token) {
+        JsonReader source = document.source;
+        if (keyEnd - keyStart < 2 || source.at(keyStart) != '"' || source.at(keyEnd - 1) != '"') {
+            throw JsonDocument.error("expected a key", keyStart);
+        }
+        for (int i = keyStart + 1; i < keyEnd - 1; i++) {
+            if (source.at(i) == '\\') {
+                return document.reader(keyStart, keyEnd).readString().equals(token.name);
+            }
+        }
+        return source.isKey(keyStart + 1, keyEnd - 1, token);
+    }
+
+    /**
+     * @return the index of the colon after the key that follows the structural character
+     */
+    private int colon(int comma, int closing) {
+        int colon = comma + 1;
+        if (colon == closing || document.source.at(document.structurals[colon]) != ':') {
+            throw JsonDocument.error("expected ':'", document.structurals[colon]);
+        }
+        return colon;
+    }
+
+    /**
+     * @return the index of the comma, or the closing brace or bracket, after the value that follows the structural character;
+     *         a missing value, e.g. after a trailing comma, is an error, as it is to the binder
+     */
+    private int next(int structural, int closing) {
+        int next = structural + 1;
+        int c = document.source.at(document.structurals[next]);
+        if (c != '{' && c != '[' && document.skipWhitespace(document.structurals[structural] + 1) == document.structurals[next]) {
+            throw JsonDocument.error("expected a value", document.structurals[next]);
+        }
+        if (c == '{' || c == '[') {
+            next = document.closings[next] + 1;
+            c = document.source.at(document.structurals[next]);
+        }
+        if (next != closing && c != ',') {
+            throw JsonDocument.error("expected ',' but found '" + (char) c + "'", document.structurals[next]);
+        }
+        return next;
+    }
+}
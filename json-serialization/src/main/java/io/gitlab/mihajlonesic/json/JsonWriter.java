@@ -0,0 +1,234 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Collects JSON output in a single buffer.
+ * The converter appends keys, separators and values in one forward pass,
+ * nested objects included, so nothing is copied more than once.
+ *
+ * Without a target the buffer grows until the whole document fits, and is recycled for the next document
+ * on the same thread through {@link BufferRecycler}.
+ * With a target the buffer has a fixed size and is handed over every time it fills up,
+ * so memory stays bounded no matter how big the document is.
+ *
+ * {@link CharJsonWriter} buffers characters, {@link Utf8JsonWriter} encodes them to UTF-8 bytes as it goes.
+ */
+abstract class JsonWriter {
+
+    static final int DEFAULT_CAPACITY = 256;
+    static final int STREAMING_CAPACITY = 8192;
+    // "-9223372036854775808"
+    static final int MAX_LONG_LENGTH = 20;
+
+    /**
+     * What each ASCII character is written as inside a string, {@code null} if it is written as it is.
+     * RFC 8259 requires escaping the quote, the backslash and the control characters; everything else,
+     * including non-ASCII, is written as it is.
+     */
+    static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    abstract void write(char c);
+
+    /**
+     * Writes the value as it is, for text known to need no escaping.
+     */
+    abstract void write(String value);
+
+    /**
+     * Writes the characters of a string value, replacing the ones in {@link #ESCAPES}.
+     * Runs of characters that need no escaping are copied in bulk.
+     */
+    abstract void writeEscaped(String value);
+
+    /**
+     * Writes the decimal digits straight into the buffer, the same as {@link Long#toString(long)}.
+     */
+    abstract void write(long value);
+
+    /**
+     * Writes characters known to be ASCII, e.g. a formatted number.
+     */
+    abstract void writeAscii(StringBuilder value);
+
+    /**
+     * Writes a pre-encoded key, preceded by a comma unless it is the first one.
+     */
+    abstract void writeKey(JsonKey key, boolean first);
+
+    /**
+     * Hands everything buffered so far over to the target.
+     */
+    abstract void flush();
+
+    /**
+     * @return an empty in-memory writer of the same kind, for a part of the document written on another thread
+     */
+    abstract JsonWriter fragment();
+
+    /**
+     * Copies everything a {@link #fragment()} of this writer holds.
+     */
+    abstract void append(JsonWriter fragment);
+
+    /**
+     * Hands the buffer over to the next in-memory conversion on this thread; the writer can't be used afterwards.
+     */
+    abstract void release();
+
+    /**
+     * Writes JSON encoded beforehand, e.g. of a {@link JsonCacheable} object or an enum constant, as it is.
+     */
+    void writeCached(CachedJson cached) {
+        write(cached.json);
+    }
+
+    /**
+     * @return whether the output is laid out differently from the compact JSON the {@link JsonCache} holds
+     */
+    boolean isFormatted() {
+        return false;
+    }
+
+    void write(int value) {
+        write((long) value);
+    }
+
+    /**
+     * Writes the value the same as {@link Double#toString(double)}.
+     */
+    void write(double value) {
+        writeAscii(BufferRecycler.digits().append(value));
+    }
+
+    /**
+     * Writes the value the same as {@link Float#toString(float)}.
+     */
+    void write(float value) {
+        writeAscii(BufferRecycler.digits().append(value));
+    }
+
+    void write(boolean value) {
+        write(value ? "true" : "false");
+    }
+
+    void beginObject() {
+        write('{');
+    }
+
+    void endObject() {
+        write('}');
+    }
+
+    void beginArray() {
+        write('[');
+    }
+
+    void endArray() {
+        write(']');
+    }
+
+    /**
+     * Separates two array items or map entries.
+     */
+    void writeComma() {
+        write(',');
+    }
+
+    /**
+     * Writes the value surrounded with double quotes, escaped.
+     */
+    void writeQuoted(String value) {
+        write('"');
+        writeEscaped(value);
+        write('"');
+    }
+
+    /**
+     * Writes the character surrounded with double quotes, escaped.
+     */
+    void writeQuoted(char value) {
+        write('"');
+        if (needsEscape(value)) {
+            write(ESCAPES[value]);
+        }
+        else {
+            write(value);
+        }
+        write('"');
+    }
+
+    /**
+     * Writes the quoted key followed by a colon.
+     */
+    void writeKey(String key) {
+        writeQuoted(key);
+        write(':');
+    }
+
+    /**
+     * Writes a pre-encoded key piece by piece, for when it doesn't fit in the buffer.
+     */
+    void writeKeyAsText(JsonKey key, boolean first) {
+        if (!first) {
+            write(',');
+        }
+        writeKey(key.name);
+    }
+
+    void writeNull() {
+        write("null");
+    }
+
+    static boolean needsEscape(char c) {
+        return c < ESCAPES.length && ESCAPES[c] != null;
+    }
+
+    /**
+     * @return the value with the characters in {@link #ESCAPES} replaced, the same value if there are none
+     */
+    static String escape(String value) {
+        int length = value.length();
+        int index = 0;
+        while (index < length && !needsEscape(value.charAt(index))) {
+            index++;
+        }
+        if (index == length) {
+            return value;
+        }
+
+        StringBuilder escaped = new StringBuilder(length + 16).append(value, 0, index);
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (needsEscape(c)) {
+                escaped.append(ESCAPES[c]);
+            }
+            else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * @param value a non-negative number
+     */
+    static int digitCount(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,32 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Writes the properties of a {@link JsonSerializable} object.
+ * Every class starts with a {@link ReflectiveObjectSerializer} and may later be
+ * promoted to one generated by {@link ObjectSerializerGenerator}.
+ *
+ * A serializer writes the primitive and String properties itself and stops at any other one, which may hold
+ * an object, an array, a collection or a map; {@link GraphWriter} reads its value through {@link #get}
+ * and calls the serializer again with the property after it.
+ * The brackets around the properties are written by the {@link GraphWriter} as well.
+ */
+interface ObjectSerializer {
+
+    /**
+     * Writes properties from the index on, up to the first one left to the {@link GraphWriter}.
+     *
+     * @param first whether no property has been written yet
+     * @return the index of the property it stopped at, the number of properties if it wrote all of them,
+     * shifted left by one, with the lowest bit set if still no property has been written
+     */
+    int write(Object object, JsonWriter writer, int from, boolean first);
+
+    /**
+     * @return the value of a property {@link #write} stopped at
+     */
+    Object get(Object object, int index);
+
+    static int stoppedAt(int index, boolean first) {
+        return index << 1 | (first ? 1 : 0);
+    }
+}
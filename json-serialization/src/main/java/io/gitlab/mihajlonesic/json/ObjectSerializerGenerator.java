@@ -0,0 +1,666 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a dedicated {@link ObjectSerializer} class for a {@link JsonSerializable} class.
+ *
+ * The generated {@code write} method jumps to the property it starts from and is straight-line code
+ * from there: for every primitive or String property it reads the field through a {@code static final}
+ * {@link MethodHandle}, which the JIT treats as a constant and inlines, and passes the value to a writer
+ * specialized for the declared field type, together with the pre-encoded key. Primitive fields are never boxed.
+ * At any other property it returns, and {@code get} reads the value through the same handle.
+ *
+ * Classes are defined as hidden classes on Java 15+, so they can be unloaded together with the
+ * serialized class, or with {@code Lookup.defineClass} on Java 9 to 14. On Java 8, or when the
+ * threshold is negative, nothing is generated and the reflective serializer is used.
+ *
+ * The number of reflective serializations before a class is compiled is set with the
+ * {@value #COMPILE_THRESHOLD_PROPERTY} system property (default {@value #DEFAULT_COMPILE_THRESHOLD},
+ * {@code 0} compiles on first use, a negative value disables compilation).
+ */
+final class ObjectSerializerGenerator {
+
+    static final String COMPILE_THRESHOLD_PROPERTY = "io.gitlab.mihajlonesic.json.compileThreshold";
+    static final int DEFAULT_COMPILE_THRESHOLD = 1000;
+    static final int COMPILE_THRESHOLD = Integer.getInteger(COMPILE_THRESHOLD_PROPERTY, DEFAULT_COMPILE_THRESHOLD);
+
+    private static final String PACKAGE = "io/gitlab/mihajlonesic/json/";
+    private static final String GENERATOR = PACKAGE + "ObjectSerializerGenerator";
+    private static final String SERIALIZER = PACKAGE + "ObjectSerializer";
+    private static final String WRITER = PACKAGE + "JsonWriter";
+    private static final String KEY = PACKAGE + "JsonKey";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+
+    private static final String WRITER_DESCRIPTOR = "L" + WRITER + ";";
+    private static final String KEY_DESCRIPTOR = "L" + KEY + ";";
+    private static final String METHOD_HANDLE_DESCRIPTOR = "L" + METHOD_HANDLE + ";";
+    private static final String STRING_DESCRIPTOR = "Ljava/lang/String;";
+    private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+
+    // locals of the generated write(Object, JsonWriter, int, boolean) method
+    private static final int OBJECT = 1;
+    private static final int WRITER_LOCAL = 2;
+    private static final int FROM = 3;
+    private static final int FIRST = 4;
+    // the index local of the generated get(Object, int) method
+    private static final int INDEX = 2;
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final ThreadLocal<Object[]> CLASS_DATA = new ThreadLocal<>();
+    private static final ClassDefiner DEFINER = ClassDefiner.find();
+
+    private ObjectSerializerGenerator() {
+    }
+
+    static boolean isAvailable() {
+        return DEFINER != null && COMPILE_THRESHOLD >= 0;
+    }
+
+    /**
+     * Only called when {@link #isAvailable()}.
+     */
+    static ObjectSerializer generate(ClassMetadata metadata) throws ReflectiveOperationException, IOException {
+        String className = PACKAGE + "GeneratedObjectSerializer$" + COUNTER.incrementAndGet();
+        List<Object> classData = new ArrayList<>();
+        byte[] bytes = new ClassBuilder(className).build(metadata.properties, classData);
+
+        // the static initializer of the generated class picks up its handles from here
+        CLASS_DATA.set(classData.toArray());
+        try {
+            Class<?> generated = DEFINER.define(bytes);
+            return (ObjectSerializer) generated.getDeclaredConstructor().newInstance();
+        } finally {
+            CLASS_DATA.remove();
+        }
+    }
+
+    /**
+     * Called from the static initializer of a generated class.
+     */
+    static Object[] classData() {
+        return CLASS_DATA.get();
+    }
+
+    // Writers called by the generated code. Each returns whether the next property is still the first one.
+
+    static boolean writeInt(JsonWriter writer, boolean first, JsonKey key, int value) {
+        writer.writeKey(key, first);
+        writer.write(value);
+        return false;
+    }
+
+    static boolean writeLong(JsonWriter writer, boolean first, JsonKey key, long value) {
+        writer.writeKey(key, first);
+        writer.write(value);
+        return false;
+    }
+
+    static boolean writeFloat(JsonWriter writer, boolean first, JsonKey key, float value) {
+        writer.writeKey(key, first);
+        writer.write(value);
+        return false;
+    }
+
+    static boolean writeDouble(JsonWriter writer, boolean first, JsonKey key, double value) {
+        writer.writeKey(key, first);
+        writer.write(value);
+        return false;
+    }
+
+    static boolean writeBoolean(JsonWriter writer, boolean first, JsonKey key, boolean value) {
+        writer.writeKey(key, first);
+        writer.write(value);
+        return false;
+    }
+
+    static boolean writeChar(JsonWriter writer, boolean first, JsonKey key, char value) {
+        writer.writeKey(key, first);
+        writer.writeQuoted(value);
+        return false;
+    }
+
+    static boolean writeString(JsonWriter writer, boolean first, JsonKey key, boolean required, String value) {
+        if (value == null && !required) {
+            return first;
+        }
+        writer.writeKey(key, first);
+        if (value == null) {
+            writer.writeNull();
+        }
+        else {
+            writer.writeQuoted(value);
+        }
+        return false;
+    }
+
+    /**
+     * Emits the class file of a generated serializer.
+     */
+    private static final class ClassBuilder {
+
+        private final ConstantPool constants = new ConstantPool();
+        private final String className;
+
+        ClassBuilder(String className) {
+            this.className = className;
+        }
+
+        byte[] build(PropertyMetadata[] properties, List<Object> classData) throws IOException, IllegalAccessException {
+            List<String> fieldDescriptors = new ArrayList<>();
+            ByteArrayOutputStream writeBytes = new ByteArrayOutputStream();
+            Code write = new Code(writeBytes);
+            ByteArrayOutputStream getBytes = new ByteArrayOutputStream();
+            Code get = new Code(getBytes);
+
+            // switch (from) { case 0: ... case n: }
+            int n = properties.length;
+            write.load(Code.ILOAD, FROM);
+            int writeSwitch = write.tableSwitch(n + 1);
+            int[] writeTargets = new int[n + 1];
+            // switch (index), only properties write stops at have a case
+            int getSwitch = -1;
+            int[] getTargets = new int[n];
+            if (n > 0) {
+                get.load(Code.ILOAD, INDEX);
+                getSwitch = get.tableSwitch(n);
+            }
+
+            for (int i = 0; i < n; i++) {
+                PropertyMetadata property = properties[i];
+                Class<?> type = property.field.getType();
+                String valueDescriptor = valueDescriptor(type);
+                MethodHandle getter = MethodHandles.lookup().unreflectGetter(property.field)
+                        .asType(MethodType.methodType(valueDescriptor.equals(OBJECT_DESCRIPTOR) ? Object.class : type, Object.class));
+                int handleField = staticField(classData, fieldDescriptors, getter, METHOD_HANDLE_DESCRIPTOR);
+                writeTargets[i] = write.position();
+
+                if (valueDescriptor.equals(OBJECT_DESCRIPTOR)) {
+                    // everything but primitives and strings is left to the graph writer
+                    returnStoppedAt(write, i);
+                    getTargets[i] = get.position();
+                    readProperty(get, handleField, valueDescriptor);
+                    get.op(Code.ARETURN);
+                }
+                else {
+                    write.load(WRITER_LOCAL);
+                    write.load(Code.ILOAD, FIRST);
+                    int keyField = staticField(classData, fieldDescriptors, property.token, KEY_DESCRIPTOR);
+                    write.getStatic(constants.fieldRef(className, "f" + keyField, KEY_DESCRIPTOR));
+                    if (valueDescriptor.equals(STRING_DESCRIPTOR)) {
+                        write.op(property.required ? Code.ICONST_1 : Code.ICONST_0);
+                    }
+                    readProperty(write, handleField, valueDescriptor);
+                    write.invoke(Code.INVOKESTATIC, constants.methodRef(GENERATOR, writerName(valueDescriptor),
+                            writerDescriptor(valueDescriptor)));
+                    write.store(Code.ISTORE, FIRST);
+                }
+            }
+            writeTargets[n] = write.position();
+            returnStoppedAt(write, n);
+
+            // return null; for the properties write never stops at
+            int getDefault = get.position();
+            get.op(Code.ACONST_NULL);
+            get.op(Code.ARETURN);
+
+            byte[] writeCode = writeBytes.toByteArray();
+            Code.patchSwitch(writeCode, writeSwitch, writeTargets[n], writeTargets);
+            byte[] getCode = getBytes.toByteArray();
+            List<Integer> getFrames = new ArrayList<>();
+            if (n > 0) {
+                for (int i = 0; i < n; i++) {
+                    if (getTargets[i] == 0) {
+                        getTargets[i] = getDefault;
+                    }
+                    else {
+                        getFrames.add(getTargets[i]);
+                    }
+                }
+                getFrames.add(getDefault);
+                Code.patchSwitch(getCode, getSwitch, getDefault, getTargets);
+            }
+            List<Integer> writeFrames = new ArrayList<>();
+            for (int target : writeTargets) {
+                writeFrames.add(target);
+            }
+
+            return assemble(fieldDescriptors, writeCode, Code.stackMap(writeFrames), getCode, Code.stackMap(getFrames),
+                    staticInitializer(fieldDescriptors));
+        }
+
+        /**
+         * return index << 1 | first;
+         */
+        private static void returnStoppedAt(Code code, int index) throws IOException {
+            code.pushInt(index << 1);
+            code.load(Code.ILOAD, FIRST);
+            code.op(Code.IOR);
+            code.op(Code.IRETURN);
+        }
+
+        private void readProperty(Code code, int handleField, String valueDescriptor) throws IOException {
+            code.getStatic(constants.fieldRef(className, "f" + handleField, METHOD_HANDLE_DESCRIPTOR));
+            code.load(OBJECT);
+            code.invoke(Code.INVOKEVIRTUAL, constants.methodRef(METHOD_HANDLE, "invokeExact",
+                    "(" + OBJECT_DESCRIPTOR + ")" + valueDescriptor));
+        }
+
+        private static int staticField(List<Object> classData, List<String> descriptors, Object value, String descriptor) {
+            classData.add(value);
+            descriptors.add(descriptor);
+            return descriptors.size() - 1;
+        }
+
+        private byte[] staticInitializer(List<String> fieldDescriptors) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Code code = new Code(bytes);
+            code.invoke(Code.INVOKESTATIC, constants.methodRef(GENERATOR, "classData", "()[" + OBJECT_DESCRIPTOR));
+            code.store(Code.ASTORE, 0);
+            for (int i = 0; i < fieldDescriptors.size(); i++) {
+                String descriptor = fieldDescriptors.get(i);
+                code.load(0);
+                code.pushInt(i);
+                code.op(Code.AALOAD);
+                code.checkCast(constants.classRef(descriptor.substring(1, descriptor.length() - 1)));
+                code.putStatic(constants.fieldRef(className, "f" + i, descriptor));
+            }
+            code.op(Code.RETURN);
+            return bytes.toByteArray();
+        }
+
+        private byte[] assemble(List<String> fieldDescriptors, byte[] writeCode, byte[] writeStackMap,
+                                byte[] getCode, byte[] getStackMap, byte[] initializerCode) throws IOException {
+            int thisClass = constants.classRef(className);
+            int superClass = constants.classRef("java/lang/Object");
+            int serializerInterface = constants.classRef(SERIALIZER);
+            int objectConstructor = constants.methodRef("java/lang/Object", "<init>", "()V");
+            int codeAttribute = constants.utf8("Code");
+            int stackMapAttribute = constants.utf8("StackMapTable");
+
+            int[] fieldNames = new int[fieldDescriptors.size()];
+            int[] fieldTypes = new int[fieldDescriptors.size()];
+            for (int i = 0; i < fieldDescriptors.size(); i++) {
+                fieldNames[i] = constants.utf8("f" + i);
+                fieldTypes[i] = constants.utf8(fieldDescriptors.get(i));
+            }
+            int constructorName = constants.utf8("<init>");
+            int constructorType = constants.utf8("()V");
+            int initializerName = constants.utf8("<clinit>");
+            int writeName = constants.utf8("write");
+            int writeType = constants.utf8("(" + OBJECT_DESCRIPTOR + WRITER_DESCRIPTOR + "IZ)I");
+            int getName = constants.utf8("get");
+            int getType = constants.utf8("(" + OBJECT_DESCRIPTOR + "I)" + OBJECT_DESCRIPTOR);
+
+            ByteArrayOutputStream constructorBytes = new ByteArrayOutputStream();
+            Code constructorCode = new Code(constructorBytes);
+            constructorCode.load(0);
+            constructorCode.invoke(Code.INVOKESPECIAL, objectConstructor);
+            constructorCode.op(Code.RETURN);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            constants.writeTo(out);
+            out.writeShort(0x0010 | 0x0020); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(serializerInterface);
+
+            out.writeShort(fieldDescriptors.size());
+            for (int i = 0; i < fieldDescriptors.size(); i++) {
+                out.writeShort(0x0002 | 0x0008 | 0x0010); // ACC_PRIVATE | ACC_STATIC | ACC_FINAL
+                out.writeShort(fieldNames[i]);
+                out.writeShort(fieldTypes[i]);
+                out.writeShort(0);
+            }
+
+            out.writeShort(4);
+            writeMethod(out, 0x0001, constructorName, constructorType, codeAttribute, 1, 1, constructorBytes.toByteArray(), -1, null);
+            writeMethod(out, 0x0008, initializerName, constructorType, codeAttribute, 2, 1, initializerCode, -1, null);
+            // the deepest stack is writer, first, key, required, the handle and the object
+            writeMethod(out, 0x0001, writeName, writeType, codeAttribute, 6, 5, writeCode, stackMapAttribute, writeStackMap);
+            writeMethod(out, 0x0001, getName, getType, codeAttribute, 2, 3, getCode, stackMapAttribute, getStackMap);
+
+            out.writeShort(0);
+            return bytes.toByteArray();
+        }
+
+        private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int codeAttribute,
+                                        int maxStack, int maxLocals, byte[] code, int stackMapAttribute, byte[] stackMap) throws IOException {
+            boolean frames = stackMap != null && stackMap.length > 2;
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + code.length + (frames ? 6 + stackMap.length : 0));
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0); // exception table
+            if (frames) {
+                out.writeShort(1);
+                out.writeShort(stackMapAttribute);
+                out.writeInt(stackMap.length);
+                out.write(stackMap);
+            }
+            else {
+                out.writeShort(0);
+            }
+        }
+
+        private static String valueDescriptor(Class<?> type) {
+            if (type == int.class || type == short.class || type == byte.class) {
+                return type == int.class ? "I" : type == short.class ? "S" : "B";
+            }
+            if (type == long.class) {
+                return "J";
+            }
+            if (type == float.class) {
+                return "F";
+            }
+            if (type == double.class) {
+                return "D";
+            }
+            if (type == boolean.class) {
+                return "Z";
+            }
+            if (type == char.class) {
+                return "C";
+            }
+            if (type == String.class) {
+                return STRING_DESCRIPTOR;
+            }
+            return OBJECT_DESCRIPTOR;
+        }
+
+        private static String writerName(String valueDescriptor) {
+            switch (valueDescriptor) {
+                case "J":
+                    return "writeLong";
+                case "F":
+                    return "writeFloat";
+                case "D":
+                    return "writeDouble";
+                case "Z":
+                    return "writeBoolean";
+                case "C":
+                    return "writeChar";
+                case STRING_DESCRIPTOR:
+                    return "writeString";
+                default:
+                    return "writeInt";
+            }
+        }
+
+        private static String writerDescriptor(String valueDescriptor) {
+            String prefix = "(" + WRITER_DESCRIPTOR + "Z" + KEY_DESCRIPTOR;
+            switch (valueDescriptor) {
+                case STRING_DESCRIPTOR:
+                    return prefix + "Z" + STRING_DESCRIPTOR + ")Z";
+                case "S":
+                case "B":
+                    // shorts and bytes are ints on the operand stack
+                    return prefix + "I)Z";
+                default:
+                    return prefix + valueDescriptor + ")Z";
+            }
+        }
+    }
+
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indexes.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            out.writeByte(1);
+            out.writeUTF(value);
+            return register("U" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            return reference("C" + internalName, 7, utf8(internalName), -1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return reference("F" + owner + "." + name + descriptor, 9, classRef(owner), nameAndType(name, descriptor));
+        }
+
+        int methodRef(String owner, String name, String descriptor) throws IOException {
+            return reference("M" + owner + "." + name + descriptor, 10, classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            return reference("N" + name + ":" + descriptor, 12, utf8(name), utf8(descriptor));
+        }
+
+        private int reference(String key, int tag, int first, int second) throws IOException {
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            out.writeByte(tag);
+            out.writeShort(first);
+            if (second >= 0) {
+                out.writeShort(second);
+            }
+            return register(key);
+        }
+
+        private int register(String key) {
+            indexes.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+    }
+
+    /**
+     * The few instructions the generated methods need. The only branches are the switches at their start,
+     * and every target has the locals of the method's own arguments, so each stack map frame is a same frame.
+     */
+    private static final class Code {
+
+        static final int ACONST_NULL = 0x01;
+        static final int ICONST_0 = 0x03;
+        static final int ICONST_1 = 0x04;
+        static final int ILOAD = 0x15;
+        static final int ALOAD = 0x19;
+        static final int AALOAD = 0x32;
+        static final int ISTORE = 0x36;
+        static final int ASTORE = 0x3a;
+        static final int IOR = 0x80;
+        static final int IRETURN = 0xac;
+        static final int ARETURN = 0xb0;
+        static final int RETURN = 0xb1;
+        static final int INVOKEVIRTUAL = 0xb6;
+        static final int INVOKESPECIAL = 0xb7;
+        static final int INVOKESTATIC = 0xb8;
+
+        private final DataOutputStream out;
+
+        Code(ByteArrayOutputStream bytes) {
+            this.out = new DataOutputStream(bytes);
+        }
+
+        int position() {
+            return out.size();
+        }
+
+        /**
+         * Emits a tableswitch over {@code 0} to {@code cases - 1} whose offsets are filled in by {@link #patchSwitch}.
+         *
+         * @return the position of the instruction
+         */
+        int tableSwitch(int cases) throws IOException {
+            int position = position();
+            out.writeByte(0xaa);
+            while (out.size() % 4 != 0) {
+                out.writeByte(0);
+            }
+            out.writeInt(0); // default
+            out.writeInt(0); // low
+            out.writeInt(cases - 1); // high
+            for (int i = 0; i < cases; i++) {
+                out.writeInt(0);
+            }
+            return position;
+        }
+
+        static void patchSwitch(byte[] code, int position, int defaultTarget, int[] targets) {
+            int offset = (position + 4) & ~3;
+            writeInt(code, offset, defaultTarget - position);
+            for (int i = 0; i < targets.length; i++) {
+                writeInt(code, offset + 12 + 4 * i, targets[i] - position);
+            }
+        }
+
+        private static void writeInt(byte[] code, int offset, int value) {
+            code[offset] = (byte) (value >>> 24);
+            code[offset + 1] = (byte) (value >>> 16);
+            code[offset + 2] = (byte) (value >>> 8);
+            code[offset + 3] = (byte) value;
+        }
+
+        /**
+         * @param targets the positions of the branch targets, in order
+         * @return the StackMapTable attribute body, a same frame at each target
+         */
+        static byte[] stackMap(List<Integer> targets) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(targets.size());
+            int previous = -1;
+            for (int target : targets) {
+                int delta = target - previous - 1;
+                if (delta <= 63) {
+                    out.writeByte(delta); // same_frame
+                }
+                else {
+                    out.writeByte(251); // same_frame_extended
+                    out.writeShort(delta);
+                }
+                previous = target;
+            }
+            return bytes.toByteArray();
+        }
+
+        void op(int opcode) throws IOException {
+            out.writeByte(opcode);
+        }
+
+        void load(int local) throws IOException {
+            load(ALOAD, local);
+        }
+
+        void load(int opcode, int local) throws IOException {
+            out.writeByte(opcode);
+            out.writeByte(local);
+        }
+
+        void store(int opcode, int local) throws IOException {
+            out.writeByte(opcode);
+            out.writeByte(local);
+        }
+
+        void pushInt(int value) throws IOException {
+            if (value <= Byte.MAX_VALUE) {
+                out.writeByte(0x10); // bipush
+                out.writeByte(value);
+            }
+            else {
+                out.writeByte(0x11); // sipush
+                out.writeShort(value);
+            }
+        }
+
+        void getStatic(int field) throws IOException {
+            out.writeByte(0xb2);
+            out.writeShort(field);
+        }
+
+        void putStatic(int field) throws IOException {
+            out.writeByte(0xb3);
+            out.writeShort(field);
+        }
+
+        void checkCast(int type) throws IOException {
+            out.writeByte(0xc0);
+            out.writeShort(type);
+        }
+
+        void invoke(int opcode, int method) throws IOException {
+            out.writeByte(opcode);
+            out.writeShort(method);
+        }
+    }
+
+    /**
+     * Defines classes in this package through whichever API the running JVM offers.
+     */
+    private static final class ClassDefiner {
+
+        private final Method defineHiddenClass;
+        private final Object noOptions;
+        private final Method defineClass;
+
+        private ClassDefiner(Method defineHiddenClass, Object noOptions, Method defineClass) {
+            this.defineHiddenClass = defineHiddenClass;
+            this.noOptions = noOptions;
+            this.defineClass = defineClass;
+        }
+
+        static ClassDefiner find() {
+            try {
+                Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+                Object noOptions = Array.newInstance(option, 0);
+                Method defineHiddenClass = MethodHandles.Lookup.class.getMethod("defineHiddenClass",
+                        byte[].class, boolean.class, noOptions.getClass());
+                return new ClassDefiner(defineHiddenClass, noOptions, null);
+            } catch (ReflectiveOperationException e) {
+                // before Java 15
+            }
+            try {
+                return new ClassDefiner(null, null, MethodHandles.Lookup.class.getMethod("defineClass", byte[].class));
+            } catch (NoSuchMethodException e) {
+                // Java 8
+                return null;
+            }
+        }
+
+        Class<?> define(byte[] bytes) throws ReflectiveOperationException {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (defineHiddenClass != null) {
+                return ((MethodHandles.Lookup) defineHiddenClass.invoke(lookup, bytes, true, noOptions)).lookupClass();
+            }
+            return (Class<?>) defineClass.invoke(lookup, bytes);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Finds the {@link JsonSerializable} classes of a package and its subpackages, in directories and jars on the class path.
+ */
+final class PackageScanner {
+
+    private PackageScanner() {
+    }
+
+    /**
+     * @param problems where classes that can't be listed or loaded are reported
+     * @return the classes, ordered by name
+     */
+    static List<Class<?>> scan(String packageName, ClassLoader classLoader, List<String> problems) {
+        String path = packageName.replace('.', '/');
+        TreeSet<String> classNames = new TreeSet<>();
+        try {
+            Enumeration<URL> roots = classLoader.getResources(path);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if (root.getProtocol().equals("file")) {
+                    listDirectory(new File(root.toURI()), packageName, classNames);
+                }
+                else if (root.getProtocol().equals("jar")) {
+                    listJar((JarURLConnection) root.openConnection(), path, classNames);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            problems.add("Can't list the package " + packageName + ": " + e.getMessage());
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                Class<?> type = Class.forName(className, false, classLoader);
+                if (type.isAnnotationPresent(JsonSerializable.class)) {
+                    classes.add(type);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                problems.add("Can't load the class " + className + ": " + e);
+            }
+        }
+        return classes;
+    }
+
+    private static void listDirectory(File directory, String packageName, TreeSet<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                listDirectory(file, packageName + "." + name, classNames);
+            }
+            else if (isClass(name)) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+
+    private static void listJar(JarURLConnection connection, String path, TreeSet<String> classNames) throws IOException {
+        connection.setUseCaches(false);
+        try (JarFile jar = connection.getJarFile()) {
+            for (JarEntry entry : Collections.list(jar.entries())) {
+                String name = entry.getName();
+                if (name.startsWith(path + "/") && isClass(name.substring(name.lastIndexOf('/') + 1))) {
+                    classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                }
+            }
+        }
+    }
+
+    private static boolean isClass(String fileName) {
+        return fileName.endsWith(".class") && !fileName.equals("module-info.class") && !fileName.equals("package-info.class");
+    }
+}
@@ -0,0 +1,84 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Writes the items of a big root array or collection in chunks serialized on a {@link ForkJoinPool},
+ * each into a {@link JsonWriter#fragment() fragment} of its own, and copies the fragments into the output in order.
+ *
+ * Only a couple of chunks per thread are in flight at a time, so a streaming target still gets its output
+ * in bounded memory, and the first chunks are written while the later ones are being serialized.
+ */
+final class ParallelArrayWriter {
+
+    // more chunks than threads, so a chunk of slow items doesn't leave the other threads idle
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MAX_CHUNK_SIZE = 1024;
+    private static final int IN_FLIGHT_PER_THREAD = 2;
+
+    private ParallelArrayWriter() {
+    }
+
+    static void write(Object[] items, JsonWriter writer, ForkJoinPool pool, int maxDepth) {
+        int parallelism = pool.getParallelism();
+        int chunks = parallelism * CHUNKS_PER_THREAD;
+        int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, (items.length + chunks - 1) / chunks));
+        int maxInFlight = parallelism * IN_FLIGHT_PER_THREAD;
+
+        Queue<Chunk> inFlight = new ArrayDeque<>(maxInFlight);
+        int next = 0;
+        writer.beginArray();
+        try {
+            while (next < items.length || !inFlight.isEmpty()) {
+                while (next < items.length && inFlight.size() < maxInFlight) {
+                    int end = Math.min(items.length, next + chunkSize);
+                    Chunk chunk = new Chunk(items, next, end, writer.fragment(), maxDepth);
+                    pool.execute(chunk);
+                    inFlight.add(chunk);
+                    next = end;
+                }
+
+                Chunk chunk = inFlight.remove();
+                JsonWriter fragment = chunk.join();
+                if (chunk.from > 0) {
+                    writer.writeComma();
+                }
+                writer.append(fragment);
+                fragment.release();
+            }
+        } catch (RuntimeException e) {
+            for (Chunk chunk : inFlight) {
+                chunk.cancel(false);
+            }
+            throw e;
+        }
+        writer.endArray();
+    }
+
+    private static final class Chunk extends RecursiveTask<JsonWriter> {
+
+        private final Object[] items;
+        private final int from;
+        private final int to;
+        private final JsonWriter fragment;
+        private final int maxDepth;
+
+        Chunk(Object[] items, int from, int to, JsonWriter fragment, int maxDepth) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.fragment = fragment;
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        protected JsonWriter compute() {
+            // inside the root array
+            GraphWriter.writeItems(items, from, to, fragment, maxDepth, 1);
+            return fragment;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Indents the output of another writer while it is being written, so formatted JSON takes a single pass.
+ * The layout is the same as {@link JsonConverter#pretty(String)}, but string values are never reformatted.
+ *
+ * An opened object or array is indented only once something is written into it, so empty ones stay {@code {}} and {@code []}.
+ */
+final class PrettyJsonWriter extends JsonWriter {
+
+    private final JsonWriter out;
+    private final Indentation indentation;
+    private final boolean spaceAfterColon;
+
+    private int level;
+    private boolean opened;
+
+    PrettyJsonWriter(JsonWriter out, Indentation indentation, boolean spaceAfterColon) {
+        this.out = out;
+        this.indentation = indentation;
+        this.spaceAfterColon = spaceAfterColon;
+    }
+
+    @Override
+    void beginObject() {
+        open('{');
+    }
+
+    @Override
+    void endObject() {
+        close('}');
+    }
+
+    @Override
+    void beginArray() {
+        open('[');
+    }
+
+    @Override
+    void endArray() {
+        close(']');
+    }
+
+    @Override
+    void writeComma() {
+        out.write(',');
+        writeNewLine();
+    }
+
+    @Override
+    void writeKey(JsonKey key, boolean first) {
+        if (first) {
+            beforeValue();
+        }
+        else {
+            writeComma();
+        }
+        out.writeKey(key, true);
+        afterColon();
+    }
+
+    @Override
+    void writeKey(String key) {
+        beforeValue();
+        out.writeKey(key);
+        afterColon();
+    }
+
+    @Override
+    void write(char c) {
+        beforeValue();
+        out.write(c);
+    }
+
+    @Override
+    void write(String value) {
+        beforeValue();
+        out.write(value);
+    }
+
+    @Override
+    void writeEscaped(String value) {
+        beforeValue();
+        out.writeEscaped(value);
+    }
+
+    @Override
+    void write(long value) {
+        beforeValue();
+        out.write(value);
+    }
+
+    @Override
+    void writeAscii(StringBuilder value) {
+        beforeValue();
+        out.writeAscii(value);
+    }
+
+    @Override
+    void flush() {
+        out.flush();
+    }
+
+    @Override
+    boolean isFormatted() {
+        return true;
+    }
+
+    /**
+     * A fragment continues at the current level, its first value is not preceded by a new line.
+     */
+    @Override
+    JsonWriter fragment() {
+        PrettyJsonWriter fragment = new PrettyJsonWriter(out.fragment(), indentation, spaceAfterColon);
+        fragment.level = level;
+        return fragment;
+    }
+
+    @Override
+    void append(JsonWriter fragment) {
+        beforeValue();
+        out.append(((PrettyJsonWriter) fragment).out);
+    }
+
+    @Override
+    void release() {
+        out.release();
+    }
+
+    private void open(char bracket) {
+        beforeValue();
+        out.write(bracket);
+        level++;
+        opened = true;
+    }
+
+    private void close(char bracket) {
+        level--;
+        if (opened) {
+            opened = false;
+        }
+        else {
+            writeNewLine();
+        }
+        out.write(bracket);
+    }
+
+    private void beforeValue() {
+        if (opened) {
+            opened = false;
+            writeNewLine();
+        }
+    }
+
+    private void writeNewLine() {
+        out.write(indentation.newLine(level));
+        for (int i = Indentation.CACHED_LEVELS; i < level; i++) {
+            out.write(indentation.unit);
+        }
+    }
+
+    private void afterColon() {
+        if (spaceAfterColon) {
+            out.write(' ');
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationCharacter;
+import io.gitlab.mihajlonesic.json.JsonConverter.IndentationLevel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Pretty-prints JSON from a reader to a writer through fixed-size buffers, so memory stays bounded
+ * no matter how big the document is. A character is formatted looking only at the one before and the one after it.
+ * Based on the pretty-printer by asksw0rder.
+ */
+final class PrettyPrinter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer target;
+    private final Indentation indentation;
+    private final boolean spaceAfterColon;
+
+    private final char[] input = new char[BUFFER_SIZE];
+    private int inputLength;
+    private int inputPosition;
+
+    private final char[] output = new char[BUFFER_SIZE];
+    private int outputLength;
+
+    PrettyPrinter(Writer target, IndentationLevel indentationLevel, IndentationCharacter indentationCharacter, boolean spaceAfterColon) {
+        this.target = target;
+        this.spaceAfterColon = spaceAfterColon;
+        this.indentation = new Indentation(indentationLevel, indentationCharacter);
+    }
+
+    /**
+     * Formats everything the reader has and hands it over to the writer, which is not flushed nor closed.
+     */
+    void print(Reader reader) throws IOException {
+        int indentLevel = 0;
+        boolean inQuote = false;
+        boolean escaped = false;
+        char previousChar = '\0';
+        int current = read(reader);
+
+        while (current >= 0) {
+            char currentChar = (char) current;
+            int next = read(reader);
+            char nextChar = next < 0 ? '\0' : (char) next;
+
+            if (inQuote) {
+                // Inside a string everything is written as it is; an escaped quote doesn't end it.
+                write(currentChar);
+                if (escaped) {
+                    escaped = false;
+                }
+                else if (currentChar == '\\') {
+                    escaped = true;
+                }
+                else if (currentChar == '"') {
+                    inQuote = false;
+                }
+                previousChar = currentChar;
+                current = next;
+                continue;
+            }
+
+            switch (currentChar) {
+                case '"':
+                    inQuote = true;
+                    write(currentChar);
+                    break;
+                case ' ':
+                    // For space: ignore the space if it is not being quoted.
+                    break;
+                case '{':
+                case '[':
+                    // Starting a new block: increase the indent level
+                    write(currentChar);
+                    if (nextChar != ']' && nextChar != '}') {
+                        indentLevel++;
+                        writeIndentedNewLine(indentLevel);
+                    }
+                    break;
+                case '}':
+                case ']':
+                    // Ending a new block; decrease the indent level
+                    if (previousChar != '[' && previousChar != '{') {
+                        indentLevel--;
+                        writeIndentedNewLine(indentLevel);
+                    }
+                    write(currentChar);
+                    break;
+                case ',':
+                    // Ending a json item; create a new line after
+                    write(currentChar);
+                    writeIndentedNewLine(indentLevel);
+                    break;
+                case ':':
+                    // Add space after a colon
+                    write(currentChar);
+                    if (spaceAfterColon) {
+                        write(' ');
+                    }
+                    break;
+                default:
+                    write(currentChar);
+            }
+
+            previousChar = currentChar;
+            current = next;
+        }
+        flush();
+    }
+
+    private int read(Reader reader) throws IOException {
+        if (inputPosition == inputLength) {
+            inputLength = reader.read(input);
+            inputPosition = 0;
+            while (inputLength == 0) {
+                inputLength = reader.read(input);
+            }
+            if (inputLength < 0) {
+                inputLength = 0;
+                return -1;
+            }
+        }
+        return input[inputPosition++];
+    }
+
+    private void write(char c) throws IOException {
+        if (outputLength == output.length) {
+            flush();
+        }
+        output[outputLength++] = c;
+    }
+
+    private void writeIndentedNewLine(int indentLevel) throws IOException {
+        write(indentation.newLine(indentLevel));
+        for (int i = Indentation.CACHED_LEVELS; i < indentLevel; i++) {
+            write(indentation.unit);
+        }
+    }
+
+    private void write(String value) throws IOException {
+        int length = value.length();
+        if (outputLength + length > output.length) {
+            flush();
+            if (length > output.length) {
+                target.write(value);
+                return;
+            }
+        }
+        value.getChars(0, length, output, outputLength);
+        outputLength += length;
+    }
+
+    private void flush() throws IOException {
+        target.write(output, 0, outputLength);
+        outputLength = 0;
+    }
+}
@@ -0,0 +1,214 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.function.Function;
+
+/**
+ * A field annotated with {@link JsonElement}, resolved once per class.
+ */
+final class PropertyMetadata {
+
+    /**
+     * The reflected field, {@code null} when the class has a {@link GeneratedJsonSerializer}.
+     */
+    final Field field;
+    final String key;
+    final JsonKey token;
+    final boolean required;
+    final Class<?> type;
+    /**
+     * The declared type with its type arguments, e.g. {@code List<Phone>}.
+     */
+    final Type genericType;
+    final TypeCategory category;
+
+    /**
+     * Whether the {@link ObjectSerializer} writes the value itself: a primitive, or a String,
+     * which holds nothing else. Any other value is handed to the {@link GraphWriter}.
+     */
+    final boolean inline;
+
+    /**
+     * Reads the field value, {@code (Object) -> Object}.
+     * Unlike {@link Field#get(Object)} the access check is done only once, when the handle is created.
+     */
+    final MethodHandle getter;
+
+    /**
+     * Reads a primitive field value without boxing it, e.g. {@code (Object) -> int}.
+     * {@code null} for reference fields and for classes with a {@link GeneratedJsonSerializer}.
+     */
+    final MethodHandle primitiveGetter;
+
+    /**
+     * Reads the field value through generated code instead of {@link #getter}.
+     */
+    final Function<Object, ?> generatedGetter;
+
+    /**
+     * Sets the field value, {@code (Object, Object) -> void}.
+     * {@code null} when the field can't be set, and for classes with a {@link GeneratedJsonSerializer},
+     * which are read through reflected properties.
+     */
+    final MethodHandle setter;
+
+    /**
+     * Sets a primitive field value without boxing it, e.g. {@code (Object, int) -> void}.
+     */
+    final MethodHandle primitiveSetter;
+
+    PropertyMetadata(Field field, TypeCategory category) {
+        JsonElement element = field.getAnnotation(JsonElement.class);
+        field.setAccessible(true);
+        this.field = field;
+        this.key = element.key().isEmpty() ? field.getName() : element.key();
+        this.token = new JsonKey(key);
+        this.required = element.required();
+        this.type = field.getType();
+        this.genericType = field.getGenericType();
+        this.category = category;
+        this.getter = unreflectGetter(field, Object.class);
+        this.primitiveGetter = type.isPrimitive() ? unreflectGetter(field, type) : null;
+        this.generatedGetter = null;
+        this.setter = unreflectSetter(field, Object.class);
+        this.primitiveSetter = type.isPrimitive() ? unreflectSetter(field, type) : null;
+        this.inline = type.isPrimitive() || type == String.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    PropertyMetadata(JsonProperty<?> property, TypeCategory category) {
+        this.field = null;
+        this.key = property.key;
+        this.token = new JsonKey(key);
+        this.required = property.required;
+        this.type = property.type;
+        this.genericType = property.type;
+        this.category = category;
+        this.getter = null;
+        this.primitiveGetter = null;
+        this.generatedGetter = (Function<Object, ?>) property.getter;
+        this.setter = null;
+        this.primitiveSetter = null;
+        // generated getters box primitives
+        this.inline = type == String.class;
+    }
+
+    Object get(Object owner) {
+        if (generatedGetter != null) {
+            return generatedGetter.apply(owner);
+        }
+        try {
+            return getter.invokeExact(owner);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonSerializationException("Can't read the field " + field.getName(), t);
+        }
+    }
+
+    /**
+     * Writes the value of a primitive field straight to the writer.
+     * Bytes, shorts and ints are written the same as longs, and chars are quoted.
+     */
+    void writePrimitive(Object owner, JsonWriter writer) {
+        try {
+            if (type == int.class) {
+                writer.write((int) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == long.class) {
+                writer.write((long) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == double.class) {
+                writer.write((double) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == boolean.class) {
+                writer.write((boolean) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == float.class) {
+                writer.write((float) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == char.class) {
+                writer.writeQuoted((char) primitiveGetter.invokeExact(owner));
+            }
+            else if (type == short.class) {
+                writer.write((short) primitiveGetter.invokeExact(owner));
+            }
+            else {
+                writer.write((byte) primitiveGetter.invokeExact(owner));
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonSerializationException("Can't read the field " + field.getName(), t);
+        }
+    }
+
+    void set(Object owner, Object value) {
+        try {
+            setter.invokeExact(owner, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonSerializationException("Can't set the field " + field.getName(), t);
+        }
+    }
+
+    /**
+     * Reads the value of a primitive field straight from the reader.
+     */
+    void readPrimitive(Object owner, JsonReader reader) {
+        try {
+            if (type == int.class) {
+                primitiveSetter.invokeExact(owner, reader.readInt());
+            }
+            else if (type == long.class) {
+                primitiveSetter.invokeExact(owner, reader.readLong());
+            }
+            else if (type == double.class) {
+                primitiveSetter.invokeExact(owner, reader.readDouble());
+            }
+            else if (type == boolean.class) {
+                primitiveSetter.invokeExact(owner, reader.readBoolean());
+            }
+            else if (type == float.class) {
+                primitiveSetter.invokeExact(owner, reader.readFloat());
+            }
+            else if (type == char.class) {
+                primitiveSetter.invokeExact(owner, reader.readChar());
+            }
+            else if (type == short.class) {
+                primitiveSetter.invokeExact(owner, reader.readShort());
+            }
+            else {
+                primitiveSetter.invokeExact(owner, reader.readByte());
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new JsonSerializationException("Can't set the field " + field.getName(), t);
+        }
+    }
+
+    private static MethodHandle unreflectGetter(Field field, Class<?> valueType) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(valueType, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new JsonSerializationException("Can't access the field " + field.getName(), e);
+        }
+    }
+
+    /**
+     * @return {@code null} when the field can't be set, e.g. the final field of a record
+     */
+    private static MethodHandle unreflectSetter(Field field, Class<?> valueType) {
+        try {
+            return MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, valueType));
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+}
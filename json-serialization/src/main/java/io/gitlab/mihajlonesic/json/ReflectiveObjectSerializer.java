@@ -0,0 +1,38 @@
+package io.gitlab.mihajlonesic.json;
+
+/**
+ * Walks the resolved properties of a class one by one.
+ */
+final class ReflectiveObjectSerializer implements ObjectSerializer {
+
+    private final PropertyMetadata[] properties;
+
+    ReflectiveObjectSerializer(PropertyMetadata[] properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int write(Object object, JsonWriter writer, int from, boolean first) {
+        for (int i = from; i < properties.length; i++) {
+            PropertyMetadata property = properties[i];
+            if (property.primitiveGetter != null) {
+                // primitives are never null nor skipped
+                writer.writeKey(property.token, first);
+                property.writePrimitive(object, writer);
+                first = false;
+            }
+            else if (property.inline) {
+                first = ObjectSerializerGenerator.writeString(writer, first, property.token, property.required, (String) property.get(object));
+            }
+            else {
+                return ObjectSerializer.stoppedAt(i, first);
+            }
+        }
+        return ObjectSerializer.stoppedAt(properties.length, first);
+    }
+
+    @Override
+    public Object get(Object object, int index) {
+        return properties[index].get(object);
+    }
+}
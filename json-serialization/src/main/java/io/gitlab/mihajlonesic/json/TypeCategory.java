@@ -0,0 +1,71 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.BaseStream;
+
+/**
+ * The way values of a class are written to JSON.
+ */
+enum TypeCategory {
+    NUMBER,
+    BOOLEAN,
+    CHARACTER,
+    STRING,
+    ENUM,
+    ARRAY,
+    COLLECTION,
+    MAP,
+    OBJECT,
+    UNSUPPORTED;
+
+    static TypeCategory of(Class<?> clazz) {
+        if (clazz.equals(Boolean.class) || clazz.equals(boolean.class)) {
+            return BOOLEAN;
+        }
+        if (clazz.equals(Character.class) || clazz.equals(char.class)) {
+            return CHARACTER;
+        }
+        if (clazz.isPrimitive()
+            || clazz.equals(Byte.class) || clazz.equals(Short.class)
+            || clazz.equals(Integer.class) || clazz.equals(Long.class)
+            || clazz.equals(Float.class) || clazz.equals(Double.class)) {
+            return NUMBER;
+        }
+        if (clazz.equals(String.class)) {
+            return STRING;
+        }
+        if (clazz.isAnnotationPresent(JsonSerializable.class)) {
+            return OBJECT;
+        }
+        // a constant with a body is a subclass of its enum, which isEnum() doesn't count
+        if (clazz != Enum.class && Enum.class.isAssignableFrom(clazz)) {
+            return ENUM;
+        }
+        if (clazz.isArray()) {
+            return ARRAY;
+        }
+        // a path is iterable over its names, which are paths again
+        if (Path.class.isAssignableFrom(clazz)) {
+            return UNSUPPORTED;
+        }
+        // written as an array, element by element
+        if (Iterable.class.isAssignableFrom(clazz) || Iterator.class.isAssignableFrom(clazz)
+            || BaseStream.class.isAssignableFrom(clazz) || Spliterator.class.isAssignableFrom(clazz)) {
+            return COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(clazz)) {
+            return MAP;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * String, Character and enum values are surrounded with double quotes.
+     */
+    boolean isQuoted() {
+        return this == STRING || this == CHARACTER || this == ENUM;
+    }
+}
@@ -0,0 +1,53 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads JSON from UTF-8 bytes without decoding the whole document first.
+ * Only strings are decoded; multi-byte sequences never contain a quote nor a backslash,
+ * so the structure is found byte by byte.
+ */
+final class Utf8JsonReader extends JsonReader {
+
+    private final byte[] buffer;
+
+    Utf8JsonReader(byte[] buffer, int length) {
+        this(buffer, 0, length);
+    }
+
+    Utf8JsonReader(byte[] buffer, int start, int end) {
+        super(start, end);
+        this.buffer = buffer;
+    }
+
+    @Override
+    int at(int index) {
+        return buffer[index] & 0xFF;
+    }
+
+    @Override
+    String text(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    void appendText(StringBuilder builder, int start, int end) {
+        builder.append(text(start, end));
+    }
+
+    @Override
+    boolean isKey(int start, int end, JsonKey key) {
+        // the name sits between ,"  and ":
+        byte[] bytes = key.utf8;
+        int length = end - start;
+        if (length != bytes.length - 4) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != bytes[i + 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,285 @@
+package io.gitlab.mihajlonesic.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodes JSON output to UTF-8 while it is being written, for a byte array or an {@link OutputStream}.
+ * ASCII runs, which is most of a JSON document, are copied one byte per character.
+ * Unpaired surrogates are written as {@code ?}, the same as {@link String#getBytes(java.nio.charset.Charset)}.
+ */
+final class Utf8JsonWriter extends JsonWriter {
+
+    // the longest UTF-8 sequence, a surrogate pair
+    private static final int MAX_CHAR_LENGTH = 4;
+
+    private final OutputStream target;
+    private byte[] buffer;
+    private int count;
+
+    Utf8JsonWriter() {
+        this.target = null;
+        this.buffer = BufferRecycler.takeBytes(DEFAULT_CAPACITY);
+    }
+
+    Utf8JsonWriter(OutputStream target) {
+        this.target = target;
+        this.buffer = new byte[STREAMING_CAPACITY];
+    }
+
+    @Override
+    void write(char c) {
+        if (c < 0x80) {
+            if (count == buffer.length) {
+                makeRoom(1);
+            }
+            buffer[count++] = (byte) c;
+        }
+        else {
+            writeMultiByte(c);
+        }
+    }
+
+    @Override
+    void write(String value) {
+        int length = value.length();
+        int index = 0;
+        while (index < length) {
+            if (count == buffer.length) {
+                makeRoom(length - index);
+            }
+
+            byte[] bytes = buffer;
+            int position = count;
+            int end = Math.min(length, index + bytes.length - position);
+            char c;
+            while (index < end && (c = value.charAt(index)) < 0x80) {
+                bytes[position++] = (byte) c;
+                index++;
+            }
+            count = position;
+
+            if (index < end) {
+                index = writeMultiByte(value, index);
+            }
+        }
+    }
+
+    /**
+     * The same loop as {@link #write(String)}, stopping at a character to escape as well as at a non-ASCII one.
+     */
+    @Override
+    void writeEscaped(String value) {
+        int length = value.length();
+        int index = 0;
+        while (index < length) {
+            if (count == buffer.length) {
+                makeRoom(length - index);
+            }
+
+            byte[] bytes = buffer;
+            int position = count;
+            int end = Math.min(length, index + bytes.length - position);
+            char c = 0;
+            while (index < end && (c = value.charAt(index)) < 0x80 && ESCAPES[c] == null) {
+                bytes[position++] = (byte) c;
+                index++;
+            }
+            count = position;
+
+            if (index < end) {
+                if (c < 0x80) {
+                    write(ESCAPES[c]);
+                    index++;
+                }
+                else {
+                    index = writeMultiByte(value, index);
+                }
+            }
+        }
+    }
+
+    @Override
+    void write(long value) {
+        if (value == Long.MIN_VALUE) {
+            write("-9223372036854775808");
+            return;
+        }
+        if (count + MAX_LONG_LENGTH > buffer.length) {
+            makeRoom(MAX_LONG_LENGTH);
+        }
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int end = count + digitCount(value);
+        int position = end;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        count = end;
+    }
+
+    @Override
+    void writeAscii(StringBuilder value) {
+        int length = value.length();
+        if (count + length > buffer.length) {
+            makeRoom(length);
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) value.charAt(i);
+        }
+    }
+
+    @Override
+    void writeKey(JsonKey key, boolean first) {
+        int offset = first ? 1 : 0;
+        int length = key.utf8.length - offset;
+        if (count + length > buffer.length) {
+            makeRoom(length);
+            if (length > buffer.length) {
+                // only a huge key in a streaming writer
+                writeKeyAsText(key, first);
+                return;
+            }
+        }
+        System.arraycopy(key.utf8, offset, buffer, count, length);
+        count += length;
+    }
+
+    @Override
+    void flush() {
+        if (target == null || count == 0) {
+            return;
+        }
+        try {
+            target.write(buffer, 0, count);
+        } catch (IOException e) {
+            throw new JsonSerializationException("Can't write JSON: " + e.getMessage(), e);
+        }
+        count = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Encodes the character at the index, with the one after it if they are a surrogate pair.
+     *
+     * @return the index of the next character to write
+     */
+    private int writeMultiByte(String value, int index) {
+        char c = value.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+            if (count + MAX_CHAR_LENGTH > buffer.length) {
+                makeRoom(MAX_CHAR_LENGTH);
+            }
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 2;
+        }
+        writeMultiByte(c);
+        return index + 1;
+    }
+
+    private void writeMultiByte(char c) {
+        if (count + MAX_CHAR_LENGTH > buffer.length) {
+            makeRoom(MAX_CHAR_LENGTH);
+        }
+        if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else if (Character.isSurrogate(c)) {
+            buffer[count++] = '?';
+        }
+        else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    @Override
+    void release() {
+        if (target == null) {
+            BufferRecycler.release(buffer);
+        }
+        buffer = null;
+    }
+
+    @Override
+    JsonWriter fragment() {
+        return new Utf8JsonWriter();
+    }
+
+    @Override
+    void append(JsonWriter fragment) {
+        Utf8JsonWriter other = (Utf8JsonWriter) fragment;
+        write(other.buffer, other.count);
+    }
+
+    /**
+     * Copies the bytes encoded once, instead of encoding the characters again.
+     */
+    @Override
+    void writeCached(CachedJson cached) {
+        byte[] utf8 = cached.utf8();
+        write(utf8, utf8.length);
+    }
+
+    private void write(byte[] bytes, int length) {
+        int offset = 0;
+        while (offset < length) {
+            if (count == buffer.length) {
+                makeRoom(length - offset);
+            }
+            int chunk = Math.min(length - offset, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+        }
+    }
+
+    private void makeRoom(int extra) {
+        if (target != null) {
+            flush();
+        }
+        else {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + extra));
+        }
+    }
+
+    /**
+     * Puts the JSON into a {@link ByteBuffer}, failing once the buffer is full.
+     */
+    static final class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer target;
+
+        ByteBufferOutputStream(ByteBuffer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target.remaining() < length) {
+                throw new IOException("The buffer is full, " + target.remaining() + " bytes remaining");
+            }
+            target.put(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonBinderTest {
+
+    @Test
+    public void whenPersonIsReadThenItIsWrittenTheSameAgain() {
+        Person person = new Person("john", "doe", 34);
+        person.setMiddleName("sullivan");
+        person.setMarried(true);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta"});
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234"), new Phone(PhoneType.MOBILE, "212-555-4321")});
+        person.setProfessions(Arrays.asList(Profession.TEACHER, Profession.ARTIST));
+        person.setDreamProfessions(new LinkedHashSet<>(Arrays.asList(Profession.PILOT, Profession.FIREFIGHTER)));
+        String jsonString = JsonConverter.convertToJson(person);
+
+        Person fromString = JsonConverter.fromJson(jsonString, Person.class);
+        Person fromBytes = JsonConverter.fromJson(jsonString.getBytes(StandardCharsets.UTF_8), Person.class);
+        Person fromReader = JsonConverter.fromJson(new StringReader(JsonConverter.pretty(jsonString)), Person.class);
+
+        assertEquals("John", fromString.getFirstName());
+        assertEquals(34, fromString.getAge());
+        assertEquals(PhoneType.MOBILE, fromString.getPhoneNumbers()[1].getType());
+        assertEquals(Arrays.asList(Profession.TEACHER, Profession.ARTIST), fromString.getProfessions());
+        assertEquals(jsonString, JsonConverter.convertToJson(fromString));
+        assertEquals(jsonString, JsonConverter.convertToJson(fromBytes));
+        assertEquals(jsonString, JsonConverter.convertToJson(fromReader));
+    }
+
+    @Test
+    public void whenStudentIsReadThenMapsAreFilled() {
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.getGrades().put("TE111", new Grade(87.43, 9L));
+        student.getGrades().put("MA101", new Grade(55.0, 6L));
+        student.getAttendance().put("2020-10-01", true);
+        student.getCodes().put("locker", "A-17");
+        String jsonString = JsonConverter.convertToJson(student);
+
+        Student read = JsonConverter.fromJson(jsonString, Student.class);
+
+        assertEquals(Long.valueOf(1005L), read.getIdNumber());
+        assertEquals(87.43, read.getGrades().get("TE111").getPoints(), 0);
+        assertEquals(Boolean.TRUE, read.getAttendance().get("2020-10-01"));
+        assertNull(read.getDiplomaIdNumber());
+        assertEquals(jsonString, JsonConverter.convertToJson(read));
+        assertEquals("A-17", JsonConverter.fromJson("{\"codes\":{\"locker\":\"A-17\"}}", Student.class).getCodes().get("locker"));
+    }
+
+    @Test
+    public void whenPrimitiveArraysAreReadThenTheyAreFilled() {
+        Sensor sensor = new Sensor("Tlak", new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE}, new double[]{1.5, -0.0, 1e-7, 6.02214076e23});
+        sensor.setErrorCodes(new int[]{});
+        sensor.setOnline(new boolean[]{true, false});
+        sensor.setUnits(new char[]{'h', 'P', 'a', '°'});
+
+        String jsonString = JsonConverter.convertToJson(sensor);
+        Sensor read = JsonConverter.fromJson(jsonString.getBytes(StandardCharsets.UTF_8), Sensor.class);
+
+        assertArrayEquals(sensor.getTimestamps(), read.getTimestamps());
+        assertArrayEquals(sensor.getReadings(), read.getReadings(), 0);
+        assertEquals(jsonString, JsonConverter.convertToJson(read));
+        assertArrayEquals(new int[]{1, -2, 3}, JsonConverter.fromJson(" [1, -2,\n3] ", int[].class));
+    }
+
+    @Test
+    public void whenLazySequencesAreReadThenTheyHoldTheItems() {
+        Report report = JsonConverter.fromJson("{\"title\":\"Term 1\",\"grades\":[{\"points\":87.43,\"grade\":9}]," +
+                "\"subjects\":[\"Math\",\"Physics\"],\"weeks\":null,\"attendance\":[[1,2],[]]}", Report.class);
+
+        assertEquals(Long.valueOf(9), report.getGrades().next().getGrade());
+        assertEquals(Arrays.asList("Math", "Physics"), report.getSubjects().collect(Collectors.toList()));
+        assertEquals(Long.valueOf(1), report.getAttendance().iterator().next().next());
+        assertNull(report.getWeeks());
+        assertEquals(6, JsonConverter.fromJson("{\"weeks\":[1,2,3]}", Report.class).getWeeks().sum());
+    }
+
+    @Test
+    public void whenNumbersAreReadThenTheyMatchParsing() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : Math.round(random.nextDouble() * 1e6) / 1e3;
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            assertEquals(Double.valueOf(value), JsonConverter.fromJson(Double.toString(value), Double.class));
+            assertEquals(Float.valueOf((float) value), JsonConverter.fromJson(Float.toString((float) value), Float.class));
+        }
+        assertEquals(Double.valueOf(0.1), JsonConverter.fromJson("1e-1", Double.class));
+        assertEquals(Double.valueOf(1.7976931348623157E308), JsonConverter.fromJson("17976931348623157e292", Double.class));
+        assertEquals(Double.valueOf(123456789012345678901234567890.0), JsonConverter.fromJson("123456789012345678901234567890", Double.class));
+        assertTrue(Double.isNaN(JsonConverter.fromJson("NaN", double.class)));
+        assertEquals(Double.valueOf(Double.NEGATIVE_INFINITY), JsonConverter.fromJson("-Infinity", Double.class));
+        assertEquals(Long.valueOf(Long.MIN_VALUE), JsonConverter.fromJson("-9223372036854775808", Long.class));
+        assertEquals(Integer.valueOf(-17), JsonConverter.fromJson("-17", int.class));
+    }
+
+    @Test
+    public void whenNumbersAreReadIntoObjectsThenWholeNumbersKeepEveryDigit() {
+        String json = "{\"id\":9007199254740993,\"max\":9223372036854775807,\"min\":-9223372036854775808,"
+                + "\"big\":-123456789012345678901234567890,\"ratio\":1.0,\"small\":-5,\"large\":2e3}";
+
+        for (Map<?, ?> read : Arrays.asList(JsonConverter.fromJson(json, Map.class),
+                JsonConverter.fromJson(json.getBytes(StandardCharsets.UTF_8), Map.class))) {
+            assertEquals(9007199254740993L, read.get("id"));
+            assertEquals(Long.MAX_VALUE, read.get("max"));
+            assertEquals(Long.MIN_VALUE, read.get("min"));
+            assertEquals(new BigInteger("-123456789012345678901234567890"), read.get("big"));
+            assertEquals(1.0, read.get("ratio"));
+            assertEquals(-5L, read.get("small"));
+            assertEquals(2000.0, read.get("large"));
+        }
+        assertEquals(new BigInteger("9223372036854775808"), JsonConverter.fromJson("9223372036854775808", Object.class));
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenMapIsAnArrayOfKeysAndValuesThenItIsNotRead() {
+        JsonConverter.fromJson("[\"a\":1,\"b\":2]", Map.class);
+    }
+
+    @Test
+    public void whenEnumsAreReadThenTheyAreMatchedByTheNameTheyAreWrittenAs() {
+        Unit[] units = Unit.values();
+        String jsonString = JsonConverter.convertToJson(units);
+
+        assertArrayEquals(units, JsonConverter.fromJson(jsonString, Unit[].class));
+        assertArrayEquals(units, JsonConverter.fromJson(jsonString.getBytes(StandardCharsets.UTF_8), Unit[].class));
+        assertArrayEquals(Coin.values(), JsonConverter.fromJson("[\"EURO\",\"DOLLAR\"]", Coin[].class));
+        try {
+            JsonConverter.fromJson("[\"CELSIUS\"]", Unit[].class);
+            fail("Read a unit by its name");
+        }
+        catch (JsonSerializationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("no constant CELSIUS in Unit"));
+        }
+    }
+
+    @Test
+    public void whenMapHasEnumKeysThenTheyAreWrittenAndReadByTheNameTheyAreWrittenAs() {
+        Map<Unit, Double> limits = new EnumMap<>(Unit.class);
+        limits.put(Unit.CELSIUS, 40.0);
+        limits.put(Unit.INCH, 2.5);
+        Sensor sensor = new Sensor("Vlaga", new long[0], new double[0]);
+        sensor.setLimits(limits);
+
+        String jsonString = JsonConverter.convertToJson(sensor);
+
+        assertTrue(jsonString, jsonString.contains("\"limits\":{\"°C\":40.0,\"\\\"\":2.5}"));
+        assertEquals(limits, JsonConverter.fromJson(jsonString, Sensor.class).getLimits());
+        assertEquals("{\"+\":1}", JsonConverter.convertToJson(Collections.singletonMap(Operation.PLUS, 1)));
+        try {
+            JsonConverter.fromJson("{\"name\":\"Vlaga\",\"timestamps\":[],\"readings\":[],\"limits\":{\"CELSIUS\":40.0}}", Sensor.class);
+            fail("Read a unit key by its name");
+        }
+        catch (JsonSerializationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("no constant CELSIUS in Unit"));
+        }
+    }
+
+    @Test
+    public void whenEnumConstantsHaveABodyThenTheyAreWrittenAndReadAsTheirEnum() {
+        Operation[] operations = Operation.values();
+        String jsonString = JsonConverter.convertToJson(operations);
+
+        assertEquals("[\"+\",\"-\"]", jsonString);
+        assertEquals(jsonString, JsonConverter.convertToJson(Arrays.<Object>asList(operations)));
+        assertArrayEquals(operations, JsonConverter.fromJson(jsonString, Operation[].class));
+    }
+
+    @Test
+    public void whenJsonIsNestedDeeperThanTheMaximumDepthThenItIsNotRead() {
+        assertEquals(Collections.singletonList(Collections.emptyList()), JsonConverter.fromJson("[[]]", List.class, JsonConfig.DEFAULT.withMaxDepth(2)));
+        for (String json : Arrays.asList(nested(JsonConfig.DEFAULT_MAX_DEPTH + 1), nested(100000))) {
+            try {
+                JsonConverter.fromJson(json, Object.class);
+                fail("Read " + json.length() + " characters of nested arrays");
+            }
+            catch (JsonSerializationException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: more than 1000 nested objects and arrays"));
+            }
+        }
+        assertEquals(1, ((List<?>) JsonConverter.fromJson(nested(JsonConfig.DEFAULT_MAX_DEPTH), Object.class)).size());
+
+        try {
+            JsonConverter.fromJson(JsonConverter.convertToJson(new Student("Jane", "Doe", 1005L)), Student.class, JsonConfig.DEFAULT.withMaxDepth(1));
+            fail("Read a map nested in an object with a maximum depth of 1");
+        }
+        catch (JsonSerializationException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: more than 1 nested objects and arrays"));
+        }
+        try {
+            JsonConverter.fromJson(nested(1000000), Object.class, JsonConfig.DEFAULT.withMaxDepth(Integer.MAX_VALUE));
+            fail("Read a million nested arrays");
+        }
+        catch (JsonSerializationException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: "));
+        }
+    }
+
+    private static String nested(int depth) {
+        StringBuilder json = new StringBuilder(depth * 2);
+        for (int i = 0; i < depth; i++) {
+            json.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            json.append(']');
+        }
+        return json.toString();
+    }
+
+    @Test
+    public void whenStringsHaveEscapesThenTheyAreDecoded() {
+        String json = "{\"str\\u0065et\":\"Main \\\"st.\\\"\\n\\\\ 1\",\"number\":\"\\u010d. 2\",\"unknown\":{\"a\":[1,{\"b\":\"}\"}]},\"city\":\"Košice\"}";
+
+        for (Address address : Arrays.asList(JsonConverter.fromJson(json, Address.class), JsonConverter.fromJson(json.getBytes(StandardCharsets.UTF_8), Address.class))) {
+            assertEquals("Main \"st.\"\n\\ 1", address.getStreet());
+            assertEquals("č. 2", address.getNumber());
+            assertEquals("Košice", address.getCity());
+            assertNull(address.getCountry());
+        }
+    }
+
+    @Test
+    public void whenJsonIsMalformedThenPositionIsReported() {
+        assertReadFails("{\"street\":\"Main st.\",}", Address.class, "Can't read JSON: expected '\"' but found '}' at position 21");
+        assertReadFails("{\"street\" \"Main st.\"}", Address.class, "Can't read JSON: expected ':' but found '\"' at position 10");
+        assertReadFails("{\"street\":\"Main st.", Address.class, "Can't read JSON: unterminated string at position 19");
+        assertReadFails("{} {}", Address.class, "Can't read JSON: expected the end of the document but found '{' at position 3");
+        assertReadFails("[2147483648]", int[].class, "Can't read JSON: the number doesn't fit in an int at position 1");
+        assertReadFails("\"CHEF\"", Profession.class, "Can't read JSON: no constant CHEF in Profession at position 6");
+        assertReadFails("{}", Unreadable.class, "The class Unreadable needs a constructor without parameters to be read from JSON");
+    }
+
+    @JsonSerializable
+    static class Unreadable {
+
+        @JsonElement
+        private final String name;
+
+        Unreadable(String name) {
+            this.name = name;
+        }
+    }
+
+    private static void assertReadFails(String json, Class<?> type, String message) {
+        try {
+            JsonConverter.fromJson(json, type);
+            fail();
+        } catch (JsonSerializationException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.gitlab.mihajlonesic.json;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JsonCacheTest {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @Before
+    public void beforeEach() {
+        JsonCache.clear();
+        hits = JsonCache.getHits();
+        misses = JsonCache.getMisses();
+        evictions = JsonCache.getEvictions();
+    }
+
+    @Test
+    public void whenCacheableObjectIsWrittenAgainThenItsJsonIsTakenFromTheCache() {
+        City city = new City("Bratislava", "Slovakia", 475503);
+        String expected = "{\"name\":\"Bratislava\",\"country\":{\"name\":\"Slovakia\"},\"population\":475503}";
+
+        assertEquals(expected, JsonConverter.convertToJson(city));
+        assertEquals(expected, JsonConverter.convertToJson(city));
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), JsonConverter.convertToJsonBytes(city));
+        // a trip is not cacheable, the cities in it are spliced in
+        assertEquals("{\"from\":" + expected + ",\"to\":" + expected + "}", JsonConverter.convertToJson(new Trip(city, city)));
+
+        // the city and the country it holds were written once
+        assertEquals(2, JsonCache.getMisses() - misses);
+        assertEquals(4, JsonCache.getHits() - hits);
+        assertEquals(2, JsonCache.size());
+    }
+
+    @Test
+    public void whenCachedObjectIsWrittenDeeperThanAllowedThenExceptionIsThrown() {
+        City city = new City("Žilina", "Slovakia", 80810);
+        // the country is cached first and spliced into the city, inside a trip
+        JsonConverter.convertToJson(city.country);
+        JsonConverter.convertToJson(new Trip(city, city));
+        JsonConfig config = JsonConfig.DEFAULT.withMaxDepth(3);
+        long cachedHits = JsonCache.getHits();
+
+        assertEquals("[[" + JsonConverter.convertToJson(city) + "]]", JsonConverter.convertToJson(Arrays.asList(Arrays.asList(city)), JsonConfig.DEFAULT.withMaxDepth(4)));
+        assertEquals(2, JsonCache.getHits() - cachedHits);
+        try {
+            JsonConverter.convertToJson(Arrays.asList(Arrays.asList(city)), config);
+            fail("Wrote a city four levels deep");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't serialize more than 3 nested objects and arrays", e.getMessage());
+        }
+    }
+
+    @Test
+    public void whenPrettyPrintingThenCacheIsNotUsed() {
+        City city = new City("Košice", "Slovakia", 229040);
+
+        String compact = JsonConverter.convertToJson(city);
+        long cachedHits = JsonCache.getHits();
+
+        assertEquals(JsonConverter.pretty(compact), JsonConverter.convertToJson(city, JsonConfig.DEFAULT.withPrettyPrinting()));
+        assertEquals(cachedHits, JsonCache.getHits());
+    }
+
+    @Test
+    public void whenCacheIsFullThenLeastRecentlyUsedObjectsAreEvicted() {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < JsonCache.CACHE_SIZE + 10; i++) {
+            countries.add(new Country("Country " + i));
+        }
+
+        JsonConverter.convertToJson(countries);
+        JsonConverter.convertToJson(countries.get(countries.size() - 1));
+        JsonConverter.convertToJson(countries.get(0));
+
+        assertEquals(JsonCache.CACHE_SIZE, JsonCache.size());
+        assertEquals(11, JsonCache.getEvictions() - evictions);
+        assertEquals(1, JsonCache.getHits() - hits);
+    }
+
+    @Test
+    public void whenCacheableObjectFailsThenNothingIsCached() {
+        Country broken = new Country(null);
+        try {
+            JsonConverter.convertToJson(Arrays.asList(new Country("Austria"), broken));
+            fail("Wrote a country without a name");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("The method checkName failed: java.lang.IllegalStateException: no name", e.getMessage());
+        }
+
+        assertEquals(1, JsonCache.size());
+        assertEquals("[{\"name\":\"Austria\"}]", JsonConverter.convertToJson(Arrays.asList(new Country("Austria"))));
+    }
+
+    @JsonSerializable
+    @JsonCacheable
+    static final class Country {
+
+        @JsonElement
+        private final String name;
+
+        Country(String name) {
+            this.name = name;
+        }
+
+        @JsonInit
+        private void checkName() {
+            if (name == null) {
+                throw new IllegalStateException("no name");
+            }
+        }
+    }
+
+    @JsonSerializable
+    @JsonCacheable
+    static final class City {
+
+        @JsonElement
+        private final String name;
+        @JsonElement
+        private final Country country;
+        @JsonElement
+        private final int population;
+
+        City(String name, String country, int population) {
+            this.name = name;
+            this.country = new Country(country);
+            this.population = population;
+        }
+    }
+
+    @JsonSerializable
+    static final class Trip {
+
+        @JsonElement
+        private final City from;
+        @JsonElement
+        private final City to;
+
+        Trip(City from, City to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
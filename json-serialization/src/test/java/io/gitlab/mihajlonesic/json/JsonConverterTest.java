@@ -0,0 +1,927 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class JsonConverterTest {
+
+    Person person;
+
+    @Before
+    public void beforeEach() {
+        person = new Person("john", "doe", 34);
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenGivenObjectIsNotAnnotatedThenExceptionIsThrown() throws JsonSerializationException {
+        Object object = new Object();
+        JsonConverter.convertToJson(object);
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenGivenObjectIsNullThenExceptionIsThrown() throws JsonSerializationException {
+        JsonConverter.convertToJson(null);
+    }
+
+    @Test
+    public void whenOnlyRequiredFieldsArePassedThenJsonIsReturned() throws JsonSerializationException {
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false}", jsonString);
+    }
+
+    @Test
+    public void whenNonAnnotatedFieldIsPassedThenFieldIsNotPresentInJson() throws JsonSerializationException {
+        person.setMiddleName("sullivan");
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false}", jsonString);
+    }
+
+    @Test
+    public void whenANonRequiredFieldIsPassedThenFieldIsPresentInJson() throws JsonSerializationException {
+        person.setNumberOfMarriages(0);
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"numberOfMarriages\":0}", jsonString);
+    }
+
+    @Test
+    public void whenObjectIsPassedThenObjectIsPresentInJson() throws JsonSerializationException {
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"address\":{\"street\":\"Test st.\",\"number\":\"22A\",\"city\":\"Bratislava\",\"country\":\"Slovakia\"}}", jsonString);
+    }
+
+    @Test
+    public void whenNullObjectIsPassedThenObjectIsNotPresentInJson() throws JsonSerializationException {
+        person.setAddress(null);
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false}", jsonString);
+    }
+
+    @Test
+    public void whenArrayOfStringsIsPassedThenArrayIsPresentInJson() throws JsonSerializationException {
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta", "Water"});
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"favoriteDrinks\":[\"Pepsi\",\"Fanta\",\"Water\"]}", jsonString);
+    }
+
+    @Test
+    public void whenArrayOfNumbersIsPassedThenArrayIsPresentInJson() throws JsonSerializationException {
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"luckyNumbers\":[7,17,8]}", jsonString);
+    }
+
+    @Test
+    public void whenArrayOfObjectsIsPassedThenArrayIsPresentInJson() throws JsonSerializationException {
+        person.setPhoneNumbers(new Phone[]{
+                new Phone(PhoneType.HOME, "212-555-1234"),
+                new Phone(PhoneType.OFFICE, "646-555-4567"),
+                new Phone(PhoneType.MOBILE, "123-456-7890")
+        });
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"phoneNumbers\":[{\"type\":\"HOME\",\"number\":\"212-555-1234\"},{\"type\":\"OFFICE\",\"number\":\"646-555-4567\"},{\"type\":\"MOBILE\",\"number\":\"123-456-7890\"}]}", jsonString);
+    }
+
+    @Test
+    public void whenArrayOfObjectsHasAnObjectThenItIsPresentInJson() throws JsonSerializationException {
+        Person owner = new Person("jane", "doe", 33);
+        owner.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        Phone phone = new Phone(PhoneType.HOME, "212-555-1234", owner);
+        person.setPhoneNumbers(new Phone[]{
+                phone,
+                new Phone(PhoneType.OFFICE, "646-555-4567", owner)
+        });
+        String jsonStringPerson = JsonConverter.convertToJson(person);
+        String jsonStringPhone = JsonConverter.convertToJson(phone);
+        System.out.println(jsonStringPerson);
+        System.out.println(JsonConverter.pretty(jsonStringPerson));
+
+        String jsonStringOwner = "{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"personAge\":33,\"isMarried\":false,\"address\":{\"street\":\"Test st.\",\"number\":\"22A\",\"city\":\"Bratislava\",\"country\":\"Slovakia\"}}";
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"phoneNumbers\":[{\"type\":\"HOME\",\"number\":\"212-555-1234\",\"owner\":" + jsonStringOwner + "},{\"type\":\"OFFICE\",\"number\":\"646-555-4567\",\"owner\":" + jsonStringOwner + "}]}", jsonStringPerson);
+        assertEquals("{\"type\":\"HOME\",\"number\":\"212-555-1234\",\"owner\":" + jsonStringOwner + "}", jsonStringPhone);
+    }
+
+    @Test
+    public void whenAllAnnotatedFieldsArePassedThenJsonIsReturned() throws JsonSerializationException {
+        person.setMarried(true);
+        person.setNumberOfMarriages(1);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta", "Water"});
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        person.setPhoneNumbers(new Phone[]{
+                new Phone(PhoneType.HOME, "212-555-1234"),
+                new Phone(PhoneType.OFFICE, "646-555-4567"),
+                new Phone(PhoneType.MOBILE, "123-456-7890")
+        });
+        person.setChildren(new Person[]{});
+
+        Person spouse = new Person("Jane", "doe", 33);
+        spouse.setMarried(true);
+        person.setSpouse(spouse);
+
+        String jsonString = JsonConverter.convertToJson(person);
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":true,\"spouse\":{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"personAge\":33,\"isMarried\":true},\"numberOfMarriages\":1,\"address\":{\"street\":\"Test st.\",\"number\":\"22A\",\"city\":\"Bratislava\",\"country\":\"Slovakia\"},\"favoriteDrinks\":[\"Pepsi\",\"Fanta\",\"Water\"],\"luckyNumbers\":[7,17,8],\"phoneNumbers\":[{\"type\":\"HOME\",\"number\":\"212-555-1234\"},{\"type\":\"OFFICE\",\"number\":\"646-555-4567\"},{\"type\":\"MOBILE\",\"number\":\"123-456-7890\"}],\"children\":[]}", jsonString);
+    }
+
+    @Test
+    public void whenObjectGraphHasACycleThenExceptionIsThrown() {
+        Person spouse = new Person("jane", "doe", 33);
+        person.setSpouse(spouse);
+        spouse.setSpouse(person);
+        Phone phone = new Phone(PhoneType.HOME, "212-555-1234", spouse);
+        spouse.setPhoneNumbers(new Phone[]{phone});
+
+        for (Object object : Arrays.asList(person, spouse, phone, Collections.singletonList(person))) {
+            try {
+                JsonConverter.convertToJson(object);
+                fail("Serialized a cycle");
+            }
+            catch (JsonSerializationException e) {
+                assertEquals("Can't serialize a cycle, the Person holds itself", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void whenObjectIsReferencedTwiceThenItIsWrittenTwice() {
+        Person child = new Person("jim", "doe", 3);
+        person.setChildren(new Person[]{child, child});
+        person.setSpouse(child);
+
+        String jsonString = JsonConverter.convertToJson(person);
+
+        String jsonStringChild = "{\"firstName\":\"Jim\",\"lastName\":\"Doe\",\"personAge\":3,\"isMarried\":false}";
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"spouse\":" + jsonStringChild + ",\"children\":[" + jsonStringChild + "," + jsonStringChild + "]}", jsonString);
+    }
+
+    @Test
+    public void whenObjectGraphIsDeeperThanTheStackThenItIsSerialized() {
+        int depth = 100_000;
+        Person last = person;
+        for (int i = 1; i < depth; i++) {
+            Person spouse = new Person("jane", "doe", i);
+            last.setSpouse(spouse);
+            last = spouse;
+        }
+
+        String jsonString = JsonConverter.convertToJson(person, JsonConfig.DEFAULT.withMaxDepth(depth));
+        JsonDocument document = JsonDocument.parse(jsonString);
+        assertEquals(1, document.get("spouse", "personAge").asInt());
+        assertTrue(jsonString.endsWith("\"personAge\":" + (depth - 1) + ",\"isMarried\":false" + repeat('}', depth)));
+
+        try {
+            JsonConverter.convertToJson(person, JsonConfig.DEFAULT.withMaxDepth(depth - 1));
+            fail("Serialized " + depth + " nested objects");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't serialize more than " + (depth - 1) + " nested objects and arrays", e.getMessage());
+        }
+        try {
+            JsonConverter.convertToJson(person);
+            fail("Serialized " + depth + " nested objects");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't serialize more than " + JsonConfig.DEFAULT_MAX_DEPTH + " nested objects and arrays", e.getMessage());
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void whenObjectHasAnObjectNotAnnotatedAsSerializableThenThatObjectIsNotPresent() {
+        Pet pet = new Pet("Bucky", 6);
+        person.setPet(pet);
+
+        String jsonString = JsonConverter.convertToJson(person);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false}", jsonString);
+    }
+
+    @Test
+    public void whenObjectHasAListObjectThenThatListIsPresent() {
+        List<Profession> professions = Arrays.asList(Profession.TEACHER, Profession.ARTIST);
+        person.setProfessions(professions);
+
+        String jsonString = JsonConverter.convertToJson(person);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"professions\":[\"TEACHER\",\"ARTIST\"]}", jsonString);
+    }
+
+    @Test
+    public void whenObjectHasASetObjectThenThatSetIsPresentAsArrayWithoutDuplicates() {
+        List<Profession> dreamProfessions = Arrays.asList(Profession.PILOT, Profession.FIREFIGHTER, Profession.PILOT, Profession.ARTIST);
+        person.setDreamProfessions(new LinkedHashSet<>(dreamProfessions));
+
+        String jsonString = JsonConverter.convertToJson(person);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"dreamProfessions\":[\"PILOT\",\"FIREFIGHTER\",\"ARTIST\"]}", jsonString);
+    }
+
+    @Test
+    public void whenObjectHasANullAttributeThenThatNullIsPresent() {
+        Student student = new Student("Jane", "Doe", 1005L);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"attendance\":{},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"diplomaIdNumber\":null"));
+    }
+
+    @Test
+    public void whenObjectHasAnEmptyMapObjectThenThatMapIsPresentAsEmptyObject() {
+        Map<String, Boolean> attendance = new HashMap<>();
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setAttendance(attendance);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"attendance\":{},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"attendance\":{}"));
+    }
+
+    @Test
+    public void whenObjectHasVariousValuesInsideMapObjectThenThoseValuesAreAppropriatelyReturned() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("null", null);
+        map.put("integer", 5);
+        map.put("float", 5.12f);
+        map.put("char", 'm');
+        map.put("string", "This is a string");
+        map.put("list", Arrays.asList(1, 2, 3, 4));
+        map.put("list2", Arrays.asList("a", "b", "c"));
+        map.put("array", new Boolean[]{false, true, true});
+        map.put("enum", JsonConverter.IndentationCharacter.HYPHEN);
+
+        String jsonString = JsonConverter.convertToJson(map);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"null\":null,\"string\":\"This is a string\",\"array\":[false,true,true],\"list2\":[\"a\",\"b\",\"c\"],\"char\":\"m\",\"integer\":5,\"float\":5.12,\"list\":[1,2,3,4],\"enum\":\"HYPHEN\"}", jsonString);
+    }
+
+
+    @Test
+    public void whenObjectHasANullValueInsideMapObjectThenThatNullIsPresent() {
+        Map<String, Boolean> attendance = new HashMap<>();
+        attendance.put("TE111", false);
+        attendance.put("TE222", null);
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setAttendance(attendance);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"attendance\":{\"TE222\":null,\"TE111\":false},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"TE222\":null"));
+    }
+
+    @Test
+    public void whenObjectHasAMapObjectWithWrapperClassAsValueThenThatMapIsPresentAsObject() {
+        Map<String, Boolean> attendance = new HashMap<>();
+        attendance.put("TE111", false);
+        attendance.put("TE222", true);
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setAttendance(attendance);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"attendance\":{\"TE222\":true,\"TE111\":false},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"attendance\":{\"TE222\":true,\"TE111\":false}"));
+    }
+
+    @Test
+    public void whenObjectHasAMapObjectThenThatMapIsPresentAsObject() {
+        Map<String, Grade> grades = new HashMap<>();
+
+        grades.put("TE111", new Grade(87.43, 9L));
+        grades.put("TE222", new Grade(75.32, 8L));
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setGrades(grades);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"grades\":{\"TE222\":{\"points\":75.32,\"grade\":8},\"TE111\":{\"points\":87.43,\"grade\":9}},\"attendance\":{},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"grades\":{\"TE222\":{\"points\":75.32,\"grade\":8},\"TE111\":{\"points\":87.43,\"grade\":9}}"));
+    }
+
+    @Test
+    public void whenObjectHasAMapOfStringsThenThatMapIsPresentAsObjectWithStrings() {
+        Map<String, String> codes = new TreeMap<>();
+
+        codes.put("locker", "4213ABC");
+        codes.put("desk", "156");
+        codes.put("drawer", "7777");
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setCodes(codes);
+
+        String jsonString = JsonConverter.convertToJson(student);
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"attendance\":{},\"codes\":{\"desk\":\"156\",\"drawer\":\"7777\",\"locker\":\"4213ABC\"},\"diplomaIdNumber\":null}", jsonString);
+        assertTrue(jsonString.contains("\"codes\":{\"desk\":\"156\",\"drawer\":\"7777\",\"locker\":\"4213ABC\"}"));
+    }
+
+    @Test
+    public void whenMapsHaveEnumStringAndOtherKeysThenTheyAreWrittenAsObjects() {
+        Map<PhoneType, String> numbers = new EnumMap<>(PhoneType.class);
+        numbers.put(PhoneType.MOBILE, "123-456-7890");
+        numbers.put(PhoneType.HOME, "212-555-1234");
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("numbers", numbers);
+        config.put("quoted \"key\"", Collections.singletonMap(7, Arrays.asList(1.5, null)));
+        config.put("empty", new HashMap<>());
+
+        String jsonString = JsonConverter.convertToJson(config);
+
+        assertEquals("{\"numbers\":{\"HOME\":\"212-555-1234\",\"MOBILE\":\"123-456-7890\"},\"quoted \\\"key\\\"\":{\"7\":[1.5,null]},\"empty\":{}}", jsonString);
+        assertEquals(JsonConverter.pretty(jsonString), JsonConverter.convertToJson(config, JsonConfig.DEFAULT.withPrettyPrinting()));
+        Map<?, ?> read = JsonConverter.fromJson(jsonString, Map.class);
+        assertEquals(Collections.singletonMap("7", Arrays.asList(1.5, null)), read.get("quoted \"key\""));
+        assertEquals("212-555-1234", ((Map<?, ?>) read.get("numbers")).get("HOME"));
+    }
+
+    @Test
+    public void whenSerializableEnumIsAMapKeyThenItIsWrittenByItsName() {
+        Map<Planet, Planet> moons = new EnumMap<>(Planet.class);
+        moons.put(Planet.EARTH, Planet.MERCURY);
+
+        String jsonString = JsonConverter.convertToJson(moons);
+
+        assertEquals("{\"EARTH\":{\"gravity\":0.38}}", jsonString);
+        assertEquals(jsonString, JsonConverter.convertToJson(Collections.singletonMap(Planet.EARTH, Planet.MERCURY)));
+    }
+
+    @Test
+    public void whenEnumsAreWrittenThenTheirToStringIsUsedUnlessTheyAskForTheirNames() {
+        List<Object> values = Arrays.asList(Unit.CELSIUS, Unit.INCH, Coin.EURO, PhoneType.MOBILE, Unit.CELSIUS);
+
+        String jsonString = JsonConverter.convertToJson(values);
+
+        assertEquals("[\"°C\",\"\\\"\",\"EURO\",\"MOBILE\",\"°C\"]", jsonString);
+        assertArrayEquals(jsonString.getBytes(StandardCharsets.UTF_8), JsonConverter.convertToJsonBytes(values));
+        assertEquals(JsonConverter.pretty(jsonString), JsonConverter.convertToJson(values, JsonConfig.DEFAULT.withPrettyPrinting()));
+        assertArrayEquals(new Coin[]{Coin.EURO, Coin.DOLLAR},
+                JsonConverter.fromJson(JsonConverter.convertToJson(Coin.values()), Coin[].class));
+    }
+
+    @Test
+    public void whenListOfObjectsIsPassedThenEachObjectIsWrittenInPlace() {
+        Map<String, Grade> grades = new TreeMap<>();
+        grades.put("TE111", new Grade(87.43, 9L));
+        grades.put("TE222", new Grade(75.32, 8L));
+
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.setGrades(grades);
+
+        String jsonString = JsonConverter.convertToJson(Arrays.asList(student, new Phone(PhoneType.HOME, "212-555-1234")));
+
+        System.out.println(jsonString);
+        System.out.println(JsonConverter.pretty(jsonString));
+
+        assertEquals("[{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"idNumber\":1005,\"grades\":{\"TE111\":{\"points\":87.43,\"grade\":9},\"TE222\":{\"points\":75.32,\"grade\":8}},\"attendance\":{},\"diplomaIdNumber\":null},{\"type\":\"HOME\",\"number\":\"212-555-1234\"}]", jsonString);
+    }
+
+    @Test
+    public void whenSameObjectIsSerializedRepeatedlyThenJsonIsIdentical() {
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        person.setPhoneNumbers(new Phone[]{
+                new Phone(PhoneType.HOME, "212-555-1234"),
+                new Phone(PhoneType.OFFICE, "646-555-4567")
+        });
+        person.setSpouse(new Person("Jane", "doe", 33));
+
+        String expected = "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"spouse\":{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"personAge\":33,\"isMarried\":false},\"address\":{\"street\":\"Test st.\",\"number\":\"22A\",\"city\":\"Bratislava\",\"country\":\"Slovakia\"},\"luckyNumbers\":[7,17,8],\"phoneNumbers\":[{\"type\":\"HOME\",\"number\":\"212-555-1234\"},{\"type\":\"OFFICE\",\"number\":\"646-555-4567\"}]}";
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected, JsonConverter.convertToJson(person));
+        }
+    }
+
+    @Test
+    public void whenClassIsSerializedThenItsMetadataIsResolvedOnce() {
+        JsonConverter.convertToJson(person);
+
+        ClassMetadata metadata = ClassMetadata.of(Person.class);
+        assertSame(metadata, ClassMetadata.of(Person.class));
+        assertEquals(TypeCategory.OBJECT, metadata.category);
+        assertEquals(1, metadata.initializers.length);
+
+        // pet (not serializable) and middleName (not annotated) are left out
+        assertEquals(13, metadata.properties.length);
+        assertEquals("personAge", metadata.properties[2].key);
+        assertTrue(metadata.properties[2].required);
+        assertFalse(metadata.properties[4].required);
+    }
+
+    @Test
+    public void whenPropertyIsReadThenHandleReturnsFieldValue() throws IllegalAccessException {
+        person.setSpouse(new Person("Jane", "doe", 33));
+
+        for (PropertyMetadata property : ClassMetadata.of(Person.class).properties) {
+            assertEquals(property.field.get(person), property.get(person));
+        }
+    }
+
+    @Test
+    public void whenAppendableIsGivenThenJsonIsWrittenToIt() {
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        StringBuilder stringBuilder = new StringBuilder();
+        StringWriter stringWriter = new StringWriter();
+
+        JsonConverter.convertToJson(person, stringBuilder);
+        JsonConverter.convertToJson(person, stringWriter);
+
+        String expected = "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"personAge\":34,\"isMarried\":false,\"address\":{\"street\":\"Test st.\",\"number\":\"22A\",\"city\":\"Bratislava\",\"country\":\"Slovakia\"}}";
+        assertEquals(expected, stringBuilder.toString());
+        assertEquals(expected, stringWriter.toString());
+    }
+
+    @Test
+    public void whenOutputStreamOrChannelIsGivenThenJsonIsWrittenAsUtf8() {
+        person.setFavoriteDrinks(new String[]{"Kofola", "Čaj"});
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ByteArrayOutputStream channelStream = new ByteArrayOutputStream();
+
+        JsonConverter.convertToJson(person, stream);
+        JsonConverter.convertToJson(person, Channels.newChannel(channelStream));
+
+        String expected = JsonConverter.convertToJson(person);
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected, new String(channelStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenLargeCollectionIsStreamedThenOutputIsWrittenInBoundedChunks() {
+        List<Phone> phones = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            phones.add(new Phone(PhoneType.MOBILE, String.format("123-456-%04d", i)));
+        }
+        int[] largestWrite = new int[1];
+        StringWriter stringWriter = new StringWriter();
+        Writer target = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length) {
+                largestWrite[0] = Math.max(largestWrite[0], length);
+                stringWriter.write(chars, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        JsonConverter.convertToJson(phones, target);
+
+        assertEquals(JsonConverter.convertToJson(phones), stringWriter.toString());
+        assertTrue(stringWriter.toString().length() > 200000);
+        assertTrue(largestWrite[0] <= 8192);
+    }
+
+    @Test
+    public void whenPrimitiveArraysArePassedThenTheyArePresentInJson() {
+        Sensor sensor = new Sensor("thermometer", new long[]{1602720000000L, 1602720060000L}, new double[]{21.5, -0.25, 1.0E-5});
+        sensor.setErrorCodes(new int[]{});
+        sensor.setOnline(new boolean[]{true, false});
+        sensor.setUnits(new char[]{'C', 'F'});
+        String jsonString = JsonConverter.convertToJson(sensor);
+        System.out.println(jsonString);
+
+        assertEquals("{\"name\":\"thermometer\",\"timestamps\":[1602720000000,1602720060000],\"readings\":[21.5,-0.25,1.0E-5]," +
+                "\"errorCodes\":[],\"online\":[true,false],\"jednotky°\":[\"C\",\"F\"]}", jsonString);
+        assertArrayEquals(jsonString.getBytes(StandardCharsets.UTF_8), JsonConverter.convertToJsonBytes(sensor));
+        assertEquals("[3,-4,5]", JsonConverter.convertToJson(new int[]{3, -4, 5}));
+        assertEquals("[[1,2],[0.5]]", JsonConverter.convertToJson(Arrays.asList(new byte[]{1, 2}, new float[]{0.5f})));
+    }
+
+    @Test
+    public void whenNumbersAreWrittenThenTheyMatchToString() {
+        long[] longs = {0, 7, -7, 10, 99, 100, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, 999999999999999999L, 1000000000000000000L};
+        double[] doubles = {0.0, -0.0, 0.1, 87.43, 1.0E7, 1.0E-3, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN};
+
+        assertEquals(Arrays.toString(longs).replace(" ", ""), JsonConverter.convertToJson(longs));
+        assertEquals(Arrays.toString(doubles).replace(" ", ""), JsonConverter.convertToJson(doubles));
+    }
+
+    @Test
+    public void whenBytesAreRequestedThenJsonIsEncodedAsUtf8() {
+        StringBuilder longDrink = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longDrink.append("čaj-お茶-\uD83C\uDF75-");
+        }
+        person.setFavoriteDrinks(new String[]{"Kofola", "Čaj", "お茶", "\uD83C\uDF75", "\uD800", longDrink.toString()});
+        byte[] expected = JsonConverter.convertToJson(person).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        byte[] bytes = JsonConverter.convertToJsonBytes(person);
+        JsonConverter.convertToJson(person, buffer);
+        JsonConverter.convertToJson(person, stream);
+
+        assertArrayEquals(expected, bytes);
+        assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.position()));
+        assertArrayEquals(expected, stream.toByteArray());
+    }
+
+    @Test
+    public void whenByteBufferIsTooSmallThenExceptionIsThrown() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        try {
+            JsonConverter.convertToJson(person, buffer);
+            fail();
+        } catch (JsonSerializationException e) {
+            assertEquals("Can't write JSON: The buffer is full, 16 bytes remaining", e.getMessage());
+        }
+    }
+
+    @Test
+    public void whenJsonIsPrettyPrintedFromReaderThenOutputIsSameAsFromString() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Person member = new Person("john", "doe", i);
+            member.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+            member.setLuckyNumbers(new Integer[]{i, i + 1});
+            people.add(member);
+        }
+        String deep = "{\"a\":[[[[[[[[[[[[[[[[[[[[1]]]]]]]]]]]]]]]]]]]}";
+        String jsonString = JsonConverter.convertToJson(people);
+
+        for (String json : Arrays.asList(jsonString, deep)) {
+            // a reader handing out three characters at a time
+            Reader reader = new StringReader(json) {
+                @Override
+                public int read(char[] buffer, int offset, int length) throws IOException {
+                    return super.read(buffer, offset, Math.min(length, 3));
+                }
+            };
+            StringWriter writer = new StringWriter();
+
+            JsonConverter.pretty(reader, writer, JsonConverter.IndentationLevel.TWO, JsonConverter.IndentationCharacter.TAB, false);
+
+            assertEquals(JsonConverter.pretty(json, JsonConverter.IndentationLevel.TWO, JsonConverter.IndentationCharacter.TAB, false), writer.toString());
+        }
+        assertEquals("{\n    \"a\": [\n        1\n    ]\n}", JsonConverter.pretty("{\"a\":[1]}"));
+        assertTrue(JsonConverter.pretty(deep).contains("\n" + String.join("", Collections.nCopies(21, "    ")) + "1\n"));
+    }
+
+    @Test
+    public void whenJsonIsNestedDeeperThanCachedIndentationThenEveryLevelIsIndented() {
+        int depth = Indentation.CACHED_LEVELS + 8;
+        Object nested = 1;
+        StringBuilder compact = new StringBuilder("1");
+        StringBuilder expected = new StringBuilder(repeat("    ", depth)).append('1');
+        for (int level = depth - 1; level >= 0; level--) {
+            nested = Collections.singletonList(nested);
+            compact.insert(0, '[').append(']');
+            expected.insert(0, repeat("    ", level) + "[\n").append('\n').append(repeat("    ", level)).append(']');
+        }
+
+        assertEquals(expected.toString(), JsonConverter.pretty(compact.toString()));
+        assertEquals(expected.toString(), JsonConverter.convertToJson(nested, JsonConfig.DEFAULT.withPrettyPrinting()));
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void whenPrettyPrintingIsConfiguredThenJsonIsFormattedInOnePass() {
+        person.setMarried(true);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta"});
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234")});
+        person.setChildren(new Person[]{});
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.getGrades().put("TE111", new Grade(87.43, 9L));
+        JsonConfig config = JsonConfig.DEFAULT.withPrettyPrinting(JsonConverter.IndentationLevel.TWO, JsonConverter.IndentationCharacter.TAB, false);
+
+        for (Object object : Arrays.asList(person, student, Arrays.asList(student, student))) {
+            String jsonString = JsonConverter.convertToJson(object);
+
+            assertEquals(JsonConverter.pretty(jsonString), JsonConverter.convertToJson(object, JsonConfig.DEFAULT.withPrettyPrinting()));
+            assertEquals(JsonConverter.pretty(jsonString, JsonConverter.IndentationLevel.TWO, JsonConverter.IndentationCharacter.TAB, false),
+                    new String(JsonConverter.convertToJsonBytes(object, config), StandardCharsets.UTF_8));
+        }
+        assertEquals(JsonConverter.convertToJson(person), JsonConverter.convertToJson(person, config.withoutPrettyPrinting()));
+    }
+
+    @Test
+    public void whenPrettyPrintedStringHasStructuralCharactersThenStringIsKeptIntact() {
+        Address address = new Address("Main {st., 1}", "2: [a]", "Bratislava", "Slovakia");
+
+        String jsonString = JsonConverter.convertToJson(address, JsonConfig.DEFAULT.withPrettyPrinting());
+
+        assertEquals("{\n    \"street\": \"Main {st., 1}\",\n    \"number\": \"2: [a]\",\n" +
+                "    \"city\": \"Bratislava\",\n    \"country\": \"Slovakia\"\n}", jsonString);
+    }
+
+    @Test
+    public void whenStringsHaveQuotesAndControlCharactersThenTheyAreEscaped() {
+        Address address = new Address("Main \"st.\"\n\\ 1", "\u0001\t2", "Košice", "Slovakia 🇸🇰");
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.getCodes().put("locker \"A\"", "\b\f\r");
+
+        String addressJson = JsonConverter.convertToJson(address);
+        String studentJson = JsonConverter.convertToJson(student);
+
+        assertEquals("{\"street\":\"Main \\\"st.\\\"\\n\\\\ 1\",\"number\":\"\\u0001\\t2\",\"city\":\"Košice\",\"country\":\"Slovakia 🇸🇰\"}", addressJson);
+        assertTrue(studentJson, studentJson.contains("\"locker \\\"A\\\"\":\"\\b\\f\\r\""));
+        assertArrayEquals(addressJson.getBytes(StandardCharsets.UTF_8), JsonConverter.convertToJsonBytes(address));
+        assertEquals(address.getStreet(), JsonConverter.fromJson(addressJson, Address.class).getStreet());
+        assertEquals(address.getNumber(), JsonConverter.fromJson(JsonConverter.pretty(addressJson), Address.class).getNumber());
+        assertEquals("\b\f\r", JsonConverter.fromJson(JsonConverter.pretty(studentJson), Student.class).getCodes().get("locker \"A\""));
+        assertEquals(JsonConverter.pretty(addressJson), JsonConverter.convertToJson(address, JsonConfig.DEFAULT.withPrettyPrinting()));
+    }
+
+    @Test
+    public void whenSamePersonIsSerializedRepeatedlyThenOnlyTheOutputIsAllocated() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        person.setProfessions(Arrays.asList(Profession.PILOT, Profession.TEACHER));
+        char[] output = JsonConverter.convertToJson(person).toCharArray();
+        Method capitalizeNames = ClassMetadata.of(Person.class).initializers[0];
+        // both Strings are kept, so the JIT can't leave out allocating either of them
+        String[] converted = new String[1000];
+        String[] copied = new String[1000];
+
+        long serialization = 0;
+        long initAndOutput = 0;
+        for (int round = 0; round < 20; round++) {
+            long start = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 1000; i++) {
+                converted[i] = JsonConverter.convertToJson(person);
+            }
+            long middle = threads.getThreadAllocatedBytes(thread);
+            // what the conversion can't avoid: the @JsonInit method and the resulting String
+            for (int i = 0; i < 1000; i++) {
+                capitalizeNames.invoke(person);
+                copied[i] = new String(output, 0, output.length);
+            }
+            serialization = (middle - start) / 1000;
+            initAndOutput = (threads.getThreadAllocatedBytes(thread) - middle) / 1000;
+        }
+
+        assertArrayEquals(copied, converted);
+        assertTrue(serialization + " bytes per call, expected about " + initAndOutput, serialization <= initAndOutput + 64);
+    }
+
+    @Test
+    public void whenLargeCollectionIsSerializedInParallelThenOutputIsSameAsSequential() {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Person child = new Person("child", "no. " + i, i % 90);
+            child.setPhoneNumbers(new Phone[]{new Phone(PhoneType.MOBILE, String.format("123-456-%04d", i))});
+            items.add(i % 3 == 0 ? child : i % 3 == 1 ? "item " + i : new int[]{i, -i});
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        JsonConfig parallel = JsonConfig.DEFAULT.withParallelism(pool, 100);
+        StringWriter streamed = new StringWriter();
+
+        try {
+            JsonConverter.convertToJson(items, streamed, parallel);
+
+            assertEquals(JsonConverter.convertToJson(items), JsonConverter.convertToJson(items, parallel));
+            assertEquals(JsonConverter.convertToJson(items), streamed.toString());
+            assertArrayEquals(JsonConverter.convertToJsonBytes(items.toArray()), JsonConverter.convertToJsonBytes(items.toArray(), parallel));
+            assertEquals(JsonConverter.convertToJson(items, JsonConfig.DEFAULT.withPrettyPrinting()),
+                    JsonConverter.convertToJson(items, parallel.withPrettyPrinting()));
+            assertEquals("[1,2]", JsonConverter.convertToJson(Arrays.asList(1, 2), parallel));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenParallelSerializationFailsThenExceptionIsThrown() {
+        Object[] items = new Object[1000];
+        Arrays.fill(items, person);
+        Person cyclic = new Person("jane", "doe", 33);
+        cyclic.setSpouse(cyclic);
+        items[700] = cyclic;
+
+        JsonConverter.convertToJson(items, JsonConfig.DEFAULT.withParallelism(ForkJoinPool.commonPool(), 10));
+    }
+
+    @Test
+    public void whenParallelSerializationCantStartThenTheCauseIsKept() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        pool.shutdown();
+        Object[] items = new Object[100];
+        Arrays.fill(items, person);
+
+        try {
+            JsonConverter.convertToJson(items, JsonConfig.DEFAULT.withParallelism(pool, 10));
+            fail("Written on a pool that was shut down");
+        }
+        catch (JsonSerializationException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void whenBatchIsWrittenThenItIsTheSameAsTheCollection() {
+        List<Object> records = Arrays.asList(person, new Address("Test st.", "22A", "Bratislava", "Slovakia"), "record", 3);
+        Iterable<Object> lazy = records::iterator;
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        JsonConverter.writeAll(lazy, writer);
+        JsonConverter.writeAll(lazy, outputStream, JsonConfig.DEFAULT.withPrettyPrinting());
+
+        assertEquals(JsonConverter.convertToJson(records), writer.toString());
+        assertEquals(JsonConverter.convertToJson(records, JsonConfig.DEFAULT.withPrettyPrinting()),
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+
+        StringBuilder empty = new StringBuilder();
+        JsonConverter.writeAll(Collections.emptyList(), empty);
+        assertEquals("[]", empty.toString());
+    }
+
+    @Test
+    public void whenNdjsonIsWrittenThenEveryObjectIsOnALineOfItsOwn() {
+        Person other = new Person("jane", "d\u00f6e", 28);
+        List<Person> records = Arrays.asList(person, other, person);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StringBuilder builder = new StringBuilder();
+
+        JsonConverter.writeNdjson(records.iterator(), outputStream);
+        JsonConverter.writeNdjson(records.iterator(), builder);
+
+        String expected = JsonConverter.convertToJson(person) + "\n" + JsonConverter.convertToJson(other) + "\n"
+                + JsonConverter.convertToJson(person) + "\n";
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected, builder.toString());
+
+        StringBuilder formatted = new StringBuilder();
+        JsonConverter.writeNdjson(records.iterator(), formatted, JsonConfig.DEFAULT.withPrettyPrinting());
+        assertEquals(expected, formatted.toString());
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenNdjsonObjectIsNestedDeeperThanConfiguredThenExceptionIsThrown() {
+        JsonConverter.writeNdjson(Collections.singletonList(Collections.singletonList(person)).iterator(),
+                new ByteArrayOutputStream(), JsonConfig.DEFAULT.withMaxDepth(1));
+    }
+
+    @Test(expected = JsonSerializationException.class)
+    public void whenNdjsonHasANullObjectThenExceptionIsThrown() {
+        JsonConverter.writeNdjson(Arrays.asList(person, null).iterator(), new StringBuilder());
+    }
+
+    @Test
+    public void whenObjectHasLazySequencesThenTheyAreWrittenAsArrays() {
+        boolean[] closed = new boolean[1];
+        Report report = new Report("Term 1",
+                Arrays.asList(new Grade(87.43, 9L), new Grade(55.0, 6L)).iterator(),
+                Stream.of("Math", "Physics").onClose(() -> closed[0] = true));
+        report.setWeeks(IntStream.rangeClosed(1, 3));
+        report.setProfessions(EnumSet.of(Profession.PILOT, Profession.ARTIST).spliterator());
+        report.setAttendance(Arrays.asList(Arrays.asList(1L, 2L).iterator(), Collections.<Long>emptyIterator()));
+
+        String jsonString = JsonConverter.convertToJson(report);
+
+        assertEquals("{\"title\":\"Term 1\",\"grades\":[{\"points\":87.43,\"grade\":9},{\"points\":55.0,\"grade\":6}]," +
+                "\"subjects\":[\"Math\",\"Physics\"],\"weeks\":[1,2,3],\"professions\":[\"PILOT\",\"ARTIST\"]," +
+                "\"attendance\":[[1,2],[]]}", jsonString);
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    public void whenOptionalIteratorIsEmptyThenItIsNotPresent() {
+        Report report = new Report("Term 2", Collections.<Grade>emptyIterator(), Stream.empty());
+        report.setAttendance(Collections.singleton(Collections.<Long>emptyIterator()));
+
+        assertEquals("{\"title\":\"Term 2\",\"grades\":[],\"subjects\":[],\"attendance\":[[]]}", JsonConverter.convertToJson(report));
+    }
+
+    @Test
+    public void whenRootIsALazySequenceThenItIsStreamedItemByItem() {
+        List<Phone> phones = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            phones.add(new Phone(PhoneType.MOBILE, String.format("123-456-%04d", i)));
+        }
+        String expected = JsonConverter.convertToJson(phones);
+        // every item is pulled only after the previous one has been written
+        StringBuilder target = new StringBuilder();
+        Iterator<Phone> cursor = new Iterator<Phone>() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < phones.size();
+            }
+
+            @Override
+            public Phone next() {
+                assertTrue(next == 0 || target.length() + 8192 > expected.indexOf("\"" + phones.get(next - 1).getNumber() + "\""));
+                return phones.get(next++);
+            }
+        };
+
+        JsonConverter.convertToJson(cursor, target);
+
+        assertEquals(expected, target.toString());
+        assertEquals(expected, JsonConverter.convertToJson(phones.stream()));
+        assertEquals(expected, JsonConverter.convertToJson(phones.spliterator()));
+        assertEquals("[]", JsonConverter.convertToJson(Collections.emptyIterator()));
+    }
+}
@@ -0,0 +1,120 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonDocumentTest {
+
+    private static Person person() {
+        Person person = new Person("john", "doe", 34);
+        person.setMarried(true);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta"});
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234"), new Phone(PhoneType.MOBILE, "212-555-4321")});
+        return person;
+    }
+
+    @Test
+    public void whenKeysAreLookedUpThenOnlyTheirValuesAreRead() {
+        String jsonString = JsonConverter.convertToJson(person());
+
+        for (JsonDocument document : Arrays.asList(JsonDocument.parse(jsonString),
+                JsonDocument.parse(jsonString.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals("Bratislava", document.get("address", "city").asString());
+            assertEquals(34, document.get("personAge").asInt());
+            assertTrue(document.get("isMarried").asBoolean());
+            assertEquals("Fanta", document.get("favoriteDrinks").get(1).asString());
+            assertEquals("212-555-4321", document.get("phoneNumbers").get(1).get("number").asString());
+            assertNull(document.get("address", "planet"));
+            assertNull(document.get("personAge", "city"));
+            assertNull(document.get("favoriteDrinks").get(2));
+            assertTrue(document.getRoot().isObject());
+        }
+    }
+
+    @Test
+    public void whenValueIsBoundThenItIsReadAsAClass() {
+        JsonDocument document = JsonDocument.parse(JsonConverter.convertToJson(person()));
+
+        Address address = document.get("address").as(Address.class);
+        Phone[] phones = document.get("phoneNumbers").as(Phone[].class);
+
+        assertEquals("Slovakia", address.getCountry());
+        assertEquals(PhoneType.HOME, phones[0].getType());
+        assertEquals(JsonConverter.convertToJson(address), document.get("address").toString());
+    }
+
+    @Test
+    public void whenDocumentIsWalkedThenSizesKeysAndTypesAreKnown() {
+        JsonDocument document = JsonDocument.parse(
+                " { \"a\" : [ 1 , { } , [ ] , \"x\" ] , \"b\\u0022\" : null , \"c\" : { \"d\" : -2.5e1 } , \"e\" : [ 7 ] } ");
+
+        assertEquals(Arrays.asList("a", "b\"", "c", "e"), document.getRoot().keys());
+        assertEquals(4, document.getRoot().size());
+        assertEquals(4, document.get("a").size());
+        assertEquals(0, document.get("a").get(1).size());
+        assertEquals(Collections.emptyList(), document.get("a").get(1).keys());
+        assertNull(document.get("a").get(2).get(0));
+        assertTrue(document.get("a").get(3).isString());
+        assertTrue(document.get("b\"").isNull());
+        assertNull(document.get("b\"").asString());
+        assertEquals(-25.0, document.get("c", "d").asDouble(), 0);
+        assertEquals(7L, document.get("e").get(0).asLong());
+        assertFalse(document.get("e").isObject());
+        assertEquals("[ 7 ]", document.get("e").toString());
+    }
+
+    @Test
+    public void whenDocumentIsMalformedThenItIsNotRead() {
+        for (String json : Arrays.asList("{\"a\":[1,2}", "{\"a\":\"b}", "{\"a\":1", "1,2", "{\"a\":1}}", "{} []")) {
+            try {
+                JsonDocument.parse(json);
+                fail("Parsed " + json);
+            }
+            catch (JsonSerializationException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: "));
+            }
+        }
+        for (String json : Arrays.asList("{\"a\" 1}", "{\"a\":1 \"b\":2}", "{\"a\":}", "{a:1}")) {
+            try {
+                JsonDocument.parse(json).get("a");
+                fail("Read " + json);
+            }
+            catch (JsonSerializationException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: "));
+            }
+        }
+    }
+
+    @Test
+    public void whenArrayHasAMissingItemThenItsSizeIsNotCounted() {
+        assertEquals(2, JsonDocument.parse("[1, {\"a\":[]}]").getRoot().size());
+        for (String json : Arrays.asList("[1,2,]", "[1, 2 , ]", "[,1]", "[1,,2]", "{\"a\":1,}")) {
+            JsonValue root = JsonDocument.parse(json).getRoot();
+            try {
+                root.size();
+                fail("Counted the items of " + json);
+            }
+            catch (JsonSerializationException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: expected"));
+            }
+            try {
+                JsonConverter.fromJson(json, Object.class);
+                fail("Read " + json);
+            }
+            catch (JsonSerializationException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Can't read JSON: "));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSerializerTest {
+
+    @Test
+    public void whenClassIsCompiledThenItsSerializerWritesTheSameJson() {
+        Person person = new Person("john", "doe", 34);
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234")});
+
+        JsonSerializer<Person> serializer = JsonConverter.compile(Person.class);
+        String expected = JsonConverter.convertToJson(person);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.write(person, bytes);
+
+        assertEquals(expected, serializer.toJson(person));
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), serializer.toJsonBytes(person));
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+        assertEquals(JsonConverter.pretty(expected), serializer.withConfig(JsonConfig.DEFAULT.withPrettyPrinting()).toJson(person));
+        if (ObjectSerializerGenerator.isAvailable()) {
+            // the classes a person holds are compiled too
+            assertFalse(ClassMetadata.of(Phone.class).serializer() instanceof ReflectiveObjectSerializer);
+        }
+    }
+
+    @Test
+    public void whenPackageIsWarmedUpThenItsSerializableClassesAreCompiled() {
+        List<Class<?>> types = new ArrayList<>();
+        for (JsonSerializer<?> serializer : JsonConverter.warmUp("io.gitlab.mihajlonesic.json.data")) {
+            types.add(serializer.getType());
+        }
+
+        assertTrue(types.toString(), types.contains(Person.class));
+        assertTrue(types.toString(), types.contains(Student.class));
+        assertFalse(types.toString(), types.contains(Pet.class));
+        assertFalse(types.toString(), types.contains(PhoneType.class));
+    }
+
+    @Test
+    public void whenClassesHaveProblemsThenAllOfThemAreReported() {
+        try {
+            JsonConverter.warmUp(Person.class, Pet.class, Broken.class);
+            fail("Warmed up broken classes");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't warm up: The class Pet is not annotated with JsonSerializable; "
+                    + "The JsonInit method Broken.prepare can't have parameters; "
+                    + "The items of Broken.pets are Pet, which is not annotated with JsonSerializable; "
+                    + "The items of Broken.petsByName are Pet, which is not annotated with JsonSerializable", e.getMessage());
+        }
+    }
+
+    @JsonSerializable
+    static class Broken {
+
+        @JsonElement
+        private List<Pet> pets;
+        @JsonElement
+        private Map<String, List<Pet>> petsByName;
+        @JsonElement
+        private List<? extends Comparable<String>> anything;
+
+        @JsonInit
+        private void prepare(String name) {
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonSnapshotTest {
+
+    Person person;
+
+    @Before
+    public void beforeEach() {
+        person = new Person("john", "doe", 34);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta"});
+        person.setSpouse(new Person("jane", "doe", 33));
+    }
+
+    @Test
+    public void whenFieldsChangeThenOnlyTheyArePatched() {
+        JsonSnapshot snapshot = JsonSnapshot.of(person);
+        assertEquals("{}", snapshot.mergePatch(person));
+
+        person.setAge(35);
+        person.getAddress().setCity("Košice");
+        person.getSpouse().setMarried(true);
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Water"});
+
+        assertEquals("{\"personAge\":35,\"spouse\":{\"isMarried\":true},\"address\":{\"city\":\"Košice\"},\"favoriteDrinks\":[\"Pepsi\",\"Water\"]}",
+                snapshot.update(person));
+        assertEquals("{}", snapshot.update(person));
+    }
+
+    @Test
+    public void whenFieldsAreAddedOrRemovedThenTheyAreWrittenWholeOrNull() {
+        JsonSnapshot snapshot = JsonSnapshot.of(person);
+
+        person.setSpouse(null);
+        person.setLuckyNumbers(new Integer[]{7});
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234", new Person("jim", "doe", 3))});
+        person.setProfessions(Arrays.asList(Profession.TEACHER));
+
+        assertEquals("{\"spouse\":null,\"luckyNumbers\":[7],\"phoneNumbers\":[{\"type\":\"HOME\",\"number\":\"212-555-1234\",\"owner\":"
+                + "{\"firstName\":\"Jim\",\"lastName\":\"Doe\",\"personAge\":3,\"isMarried\":false}}],\"professions\":[\"TEACHER\"]}",
+                snapshot.update(person));
+
+        Person spouse = new Person("jane", "doe", 33);
+        spouse.setAddress(new Address("Main st.", "1", "Wien", "Austria"));
+        person.setSpouse(spouse);
+        person.setProfessions(Arrays.asList());
+
+        assertEquals("{\"spouse\":{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"personAge\":33,\"isMarried\":false,"
+                + "\"address\":{\"street\":\"Main st.\",\"number\":\"1\",\"city\":\"Wien\",\"country\":\"Austria\"}},\"professions\":null}",
+                snapshot.update(person));
+    }
+
+    @Test
+    public void whenTwoObjectsAreComparedThenPatchTurnsOneIntoTheOther() {
+        Person other = new Person("john", "doe", 34);
+        other.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+
+        assertEquals("{\"spouse\":null,\"favoriteDrinks\":null}", JsonConverter.convertToMergePatch(person, other));
+        assertEquals("{}", JsonConverter.convertToMergePatch(person, person));
+        try {
+            JsonConverter.convertToMergePatch(person, person.getAddress());
+            fail("Patched a person into an address");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't patch a Person into a Address", e.getMessage());
+        }
+    }
+
+    @Test
+    public void whenPropertyIsRemovedDeeperThanSnapshotsThenItIsPatchedToNull() {
+        Person last = person;
+        for (int i = 1; i < 70; i++) {
+            Person spouse = new Person("jane", "doe", i);
+            last.setSpouse(spouse);
+            last = spouse;
+        }
+        last.setAddress(new Address("Main st.", "1", "Wien", "Austria"));
+        String previous = JsonConverter.convertToJson(person);
+        JsonSnapshot snapshot = JsonSnapshot.of(person);
+
+        last.setAddress(null);
+        last.setAge(70);
+        String patch = snapshot.update(person);
+
+        assertTrue(patch, patch.endsWith("{\"personAge\":70,\"address\":null}" + repeat("}", 69)));
+        assertEquals(JsonConverter.fromJson(JsonConverter.convertToJson(person), Map.class), mergePatch(previous, patch));
+    }
+
+    @Test
+    public void whenMapEntriesChangeThenOnlyTheyArePatched() {
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.getCodes().put("x", "0");
+        student.getCodes().put("y", "2");
+        student.getGrades().put("TE111", new Grade(87.43, 9L));
+        String previous = JsonConverter.convertToJson(student);
+        JsonSnapshot snapshot = JsonSnapshot.of(student);
+
+        student.getCodes().put("x", "1");
+        student.getCodes().remove("y");
+        student.getGrades().get("TE111").setPoints(90.0);
+        student.getAttendance().put("monday", true);
+        String patch = snapshot.update(student);
+
+        assertEquals("{\"grades\":{\"TE111\":{\"points\":90.0}},\"attendance\":{\"monday\":true},\"codes\":{\"x\":\"1\",\"y\":null}}", patch);
+        assertEquals(JsonConverter.fromJson(JsonConverter.convertToJson(student), Map.class), mergePatch(previous, patch));
+
+        student.getCodes().clear();
+        assertEquals("{\"codes\":null}", snapshot.update(student));
+    }
+
+    @Test
+    public void whenClassOfPropertyChangesThenPropertiesItNoLongerHasAreRemoved() {
+        String previous = JsonConverter.convertToJson(person);
+        JsonSnapshot snapshot = JsonSnapshot.of(person);
+
+        person.setAddress(new PostOfficeBox("P.O. Box 12", "Bratislava"));
+        String patch = snapshot.update(person);
+
+        assertEquals("{\"address\":{\"box\":\"P.O. Box 12\",\"street\":null,\"number\":null,\"country\":null}}", patch);
+        assertEquals(JsonConverter.fromJson(JsonConverter.convertToJson(person), Map.class), mergePatch(previous, patch));
+    }
+
+    /**
+     * Applies the patch to the JSON the way RFC 7396 does.
+     */
+    private static Object mergePatch(String target, String patch) {
+        return mergePatch(JsonConverter.fromJson(target, Object.class), JsonConverter.fromJson(patch, Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object mergePatch(Object target, Object patch) {
+        if (!(patch instanceof Map)) {
+            return patch;
+        }
+        Map<String, Object> result = target instanceof Map ? new LinkedHashMap<>((Map<String, Object>) target) : new LinkedHashMap<>();
+        for (Map.Entry<String, Object> member : ((Map<String, Object>) patch).entrySet()) {
+            if (member.getValue() == null) {
+                result.remove(member.getKey());
+            }
+            else {
+                result.put(member.getKey(), mergePatch(result.get(member.getKey()), member.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void whenObjectGraphIsDeepThenItIsSnapshotWithinTheMaxDepth() {
+        int depth = 10_000;
+        Person last = person;
+        for (int i = 1; i < depth; i++) {
+            Person spouse = new Person("jane", "doe", i);
+            last.setSpouse(spouse);
+            last = spouse;
+        }
+        JsonSnapshot snapshot = JsonSnapshot.of(person, JsonConfig.DEFAULT.withMaxDepth(depth));
+
+        last.setAge(-1);
+        String patch = snapshot.update(person);
+
+        // only the way to the age of the last spouse, also where the snapshots give way to JSON
+        JsonValue value = JsonDocument.parse(patch).getRoot();
+        for (int i = 1; i < depth; i++) {
+            value = value.get("spouse");
+        }
+        assertEquals("{\"personAge\":-1}", value.toString());
+        try {
+            JsonSnapshot.of(person, JsonConfig.DEFAULT.withMaxDepth(depth - 1));
+            fail("Took a snapshot of " + depth + " nested objects");
+        }
+        catch (JsonSerializationException e) {
+            assertEquals("Can't serialize more than " + (depth - 1) + " nested objects and arrays", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.gitlab.mihajlonesic.json;
+
+import io.gitlab.mihajlonesic.json.data.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class ObjectSerializerGeneratorTest {
+
+    Person person;
+
+    @Before
+    public void beforeEach() {
+        assumeTrue(ObjectSerializerGenerator.isAvailable());
+        person = new Person("John", "Doe", 34);
+    }
+
+    @Test
+    public void whenOnlyRequiredFieldsArePassedThenGeneratedJsonIsSameAsReflective() throws Exception {
+        assertSameJson(person);
+    }
+
+    @Test
+    public void whenAllFieldsArePassedThenGeneratedJsonIsSameAsReflective() throws Exception {
+        person.setMarried(true);
+        person.setNumberOfMarriages(1);
+        person.setAddress(new Address("Test st.", "22A", "Bratislava", "Slovakia"));
+        person.setFavoriteDrinks(new String[]{"Pepsi", "Fanta", "Water"});
+        person.setLuckyNumbers(new Integer[]{7, 17, 8});
+        person.setPhoneNumbers(new Phone[]{new Phone(PhoneType.HOME, "212-555-1234")});
+        person.setChildren(new Person[]{});
+        person.setSpouse(new Person("Jane", "Doe", 33));
+        person.setProfessions(Arrays.asList(Profession.TEACHER, Profession.ARTIST));
+
+        assertSameJson(person);
+        assertSameJson(new Phone(PhoneType.OFFICE, "646-555-4567", person));
+    }
+
+    @Test
+    public void whenObjectHasNullsAndMapsThenGeneratedJsonIsSameAsReflective() throws Exception {
+        Student student = new Student("Jane", "Doe", 1005L);
+        student.getGrades().put("TE111", new Grade(87.43, 9L));
+        student.getAttendance().put("TE111", null);
+
+        assertSameJson(student);
+        assertSameJson(new Grade(null, null));
+    }
+
+    @Test
+    public void whenObjectHasPrimitivesThenTheyAreWrittenWithoutBoxing() throws Exception {
+        assertSameJson(new Primitives());
+        assertTrue(JsonConverter.convertToJson(new Primitives()).contains(",\"aChar\":\"\\\"\","));
+    }
+
+    @Test
+    public void whenThresholdIsReachedThenReflectiveSerializerIsReplaced() {
+        ClassMetadata metadata = ClassMetadata.of(Counted.class);
+
+        for (int i = 0; i <= ObjectSerializerGenerator.COMPILE_THRESHOLD; i++) {
+            assertEquals("{\"value\":7}", JsonConverter.convertToJson(new Counted()));
+        }
+
+        assertFalse(metadata.serializer() instanceof ReflectiveObjectSerializer);
+        assertEquals("{\"value\":7}", JsonConverter.convertToJson(new Counted()));
+    }
+
+    /**
+     * Compares the serializers from every property on, both before and after something was written,
+     * and the values of the properties they leave to the graph writer.
+     */
+    private static void assertSameJson(Object object) throws Exception {
+        ClassMetadata metadata = ClassMetadata.of(object.getClass());
+        ObjectSerializer generated = ObjectSerializerGenerator.generate(metadata);
+        ObjectSerializer reflective = new ReflectiveObjectSerializer(metadata.properties);
+
+        for (int from = 0; from <= metadata.properties.length; from++) {
+            for (boolean first : new boolean[]{true, false}) {
+                JsonWriter expected = new CharJsonWriter();
+                JsonWriter actual = new CharJsonWriter();
+                int stoppedAt = write(reflective, object, expected, from, first);
+                assertEquals(stoppedAt, write(generated, object, actual, from, first));
+                assertEquals(expected.toString(), actual.toString());
+
+                Utf8JsonWriter bytes = new Utf8JsonWriter();
+                write(generated, object, bytes, from, first);
+                assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+
+                CharJsonWriter prettyExpected = new CharJsonWriter();
+                CharJsonWriter prettyActual = new CharJsonWriter();
+                write(reflective, object, JsonConfig.DEFAULT.withPrettyPrinting().format(prettyExpected), from, first);
+                write(generated, object, JsonConfig.DEFAULT.withPrettyPrinting().format(prettyActual), from, first);
+                assertEquals(prettyExpected.toString(), prettyActual.toString());
+
+                int index = stoppedAt >>> 1;
+                if (index < metadata.properties.length) {
+                    assertFalse(metadata.properties[index].inline);
+                    assertSame(reflective.get(object, index), generated.get(object, index));
+                }
+            }
+        }
+    }
+
+    private static int write(ObjectSerializer serializer, Object object, JsonWriter writer, int from, boolean first) {
+        writer.beginObject();
+        int stoppedAt = serializer.write(object, writer, from, first);
+        writer.endObject();
+        return stoppedAt;
+    }
+
+    @JsonSerializable
+    static class Counted {
+
+        @JsonElement
+        private int value = 7;
+    }
+
+    @JsonSerializable
+    static class Primitives {
+
+        @JsonElement
+        private byte aByte = -8;
+        @JsonElement
+        private short aShort = 300;
+        @JsonElement
+        private int anInt = Integer.MIN_VALUE;
+        @JsonElement(key = "dlhé číslo")
+        private long aLong = Long.MAX_VALUE;
+        @JsonElement
+        private float aFloat = 5.12f;
+        @JsonElement
+        private double aDouble = 87.43;
+        @JsonElement
+        private boolean aBoolean = true;
+        @JsonElement
+        private char aChar = '"';
+        @JsonElement(required = false)
+        private String missing;
+        @JsonElement
+        private String present = "text";
+        @JsonElement
+        private double[] series = {1.5, -2.25};
+    }
+}
@@ -15,6 +15,9 @@ public class Address {
     @JsonElement
     private String country;
 
+    public Address() {
+    }
+
     public Address(String street, String number, String city, String country) {
         this.street = street;
         this.number = number;
@@ -0,0 +1,20 @@
+package io.gitlab.mihajlonesic.json.data;
+
+import io.gitlab.mihajlonesic.json.JsonEnumNames;
+
+@JsonEnumNames
+public enum Coin {
+    EURO("€"),
+    DOLLAR("$");
+
+    private final String symbol;
+
+    Coin(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}
@@ -0,0 +1,29 @@
+package io.gitlab.mihajlonesic.json.data;
+
+public enum Operation {
+    PLUS("+") {
+        @Override
+        public int apply(int left, int right) {
+            return left + right;
+        }
+    },
+    MINUS("-") {
+        @Override
+        public int apply(int left, int right) {
+            return left - right;
+        }
+    };
+
+    private final String symbol;
+
+    Operation(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public abstract int apply(int left, int right);
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}
@@ -54,6 +54,9 @@ public class Person {
     @JsonElement(required = false)
     private Set<Profession> dreamProfessions = new LinkedHashSet<>();
 
+    public Person() {
+    }
+
     public Person(String firstName, String lastName, int age) {
         this.firstName = firstName;
         this.lastName = lastName;
@@ -17,6 +17,9 @@ public class Phone {
     @JsonElement(required = false)
     private Person owner;
 
+    public Phone() {
+    }
+
     public Phone(PhoneType type, String number) {
         this.type = type;
         this.number = number;
@@ -0,0 +1,21 @@
+package io.gitlab.mihajlonesic.json.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+@JsonSerializable
+public enum Planet {
+    MERCURY(0.38),
+    EARTH(1.0);
+
+    @JsonElement
+    private final double gravity;
+
+    Planet(double gravity) {
+        this.gravity = gravity;
+    }
+
+    public double getGravity() {
+        return gravity;
+    }
+}
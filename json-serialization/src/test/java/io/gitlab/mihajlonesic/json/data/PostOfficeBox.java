@@ -0,0 +1,30 @@
+package io.gitlab.mihajlonesic.json.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+@JsonSerializable
+public class PostOfficeBox extends Address {
+
+    @JsonElement
+    private String box;
+
+    @JsonElement
+    private String city;
+
+    public PostOfficeBox() {
+    }
+
+    public PostOfficeBox(String box, String city) {
+        this.box = box;
+        this.city = city;
+    }
+
+    public String getBox() {
+        return box;
+    }
+
+    public void setBox(String box) {
+        this.box = box;
+    }
+}
@@ -0,0 +1,83 @@
+package io.gitlab.mihajlonesic.json.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@JsonSerializable
+public class Report {
+
+    @JsonElement
+    private String title;
+    @JsonElement
+    private Iterator<Grade> grades;
+    @JsonElement
+    private Stream<String> subjects;
+    @JsonElement(required = false)
+    private IntStream weeks;
+    @JsonElement(required = false)
+    private Spliterator<Profession> professions;
+    @JsonElement(required = false)
+    private Iterable<Iterator<Long>> attendance;
+
+    public Report() {
+    }
+
+    public Report(String title, Iterator<Grade> grades, Stream<String> subjects) {
+        this.title = title;
+        this.grades = grades;
+        this.subjects = subjects;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Iterator<Grade> getGrades() {
+        return grades;
+    }
+
+    public void setGrades(Iterator<Grade> grades) {
+        this.grades = grades;
+    }
+
+    public Stream<String> getSubjects() {
+        return subjects;
+    }
+
+    public void setSubjects(Stream<String> subjects) {
+        this.subjects = subjects;
+    }
+
+    public IntStream getWeeks() {
+        return weeks;
+    }
+
+    public void setWeeks(IntStream weeks) {
+        this.weeks = weeks;
+    }
+
+    public Spliterator<Profession> getProfessions() {
+        return professions;
+    }
+
+    public void setProfessions(Spliterator<Profession> professions) {
+        this.professions = professions;
+    }
+
+    public Iterable<Iterator<Long>> getAttendance() {
+        return attendance;
+    }
+
+    public void setAttendance(Iterable<Iterator<Long>> attendance) {
+        this.attendance = attendance;
+    }
+}
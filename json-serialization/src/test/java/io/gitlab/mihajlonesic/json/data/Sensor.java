@@ -0,0 +1,90 @@
+package io.gitlab.mihajlonesic.json.data;
+
+import io.gitlab.mihajlonesic.json.JsonElement;
+import io.gitlab.mihajlonesic.json.JsonSerializable;
+
+import java.util.Map;
+
+@JsonSerializable
+public class Sensor {
+
+    @JsonElement
+    private String name;
+    @JsonElement
+    private long[] timestamps;
+    @JsonElement
+    private double[] readings;
+    @JsonElement(required = false)
+    private int[] errorCodes;
+    @JsonElement(required = false)
+    private boolean[] online;
+    @JsonElement(key = "jednotky°", required = false)
+    private char[] units;
+    @JsonElement(required = false)
+    private Map<Unit, Double> limits;
+
+    public Sensor() {
+    }
+
+    public Sensor(String name, long[] timestamps, double[] readings) {
+        this.name = name;
+        this.timestamps = timestamps;
+        this.readings = readings;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public double[] getReadings() {
+        return readings;
+    }
+
+    public void setReadings(double[] readings) {
+        this.readings = readings;
+    }
+
+    public int[] getErrorCodes() {
+        return errorCodes;
+    }
+
+    public void setErrorCodes(int[] errorCodes) {
+        this.errorCodes = errorCodes;
+    }
+
+    public boolean[] getOnline() {
+        return online;
+    }
+
+    public void setOnline(boolean[] online) {
+        this.online = online;
+    }
+
+    public char[] getUnits() {
+        return units;
+    }
+
+    public void setUnits(char[] units) {
+        this.units = units;
+    }
+
+    public Map<Unit, Double> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<Unit, Double> limits) {
+        this.limits = limits;
+    }
+}
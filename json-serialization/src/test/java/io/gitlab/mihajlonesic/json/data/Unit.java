@@ -0,0 +1,18 @@
+package io.gitlab.mihajlonesic.json.data;
+
+public enum Unit {
+    CELSIUS("°C"),
+    PERCENT("%"),
+    INCH("\"");
+
+    private final String symbol;
+
+    Unit(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}